@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# Compares throughput and tail latency with platform request threads vs virtual threads.
+#
+# Requires a packaged jar (./mvnw -DskipTests package), curl and hey (https://github.com/rakyll/hey).
+# Each mode gets a fresh JVM and the same seeded data set, then runs the same three scenarios:
+#   lookup   GET /strings/{value}           (hash + cache/DB lookup)
+#   filter   GET /strings?min_length=...    (DB query + mapping on every request)
+#   conflict POST /strings with a duplicate (hash + dedup check, 409)
+#
+# Usage: scripts/compare-threading.sh [results-dir]
+# Tunables: JAR, PORT, CONCURRENCY, REQUESTS, SEED_SIZE, JAVA_OPTS
+set -euo pipefail
+
+JAR=${JAR:-target/stringanalyzer-0.0.1-SNAPSHOT.jar}
+PORT=${PORT:-8090}
+CONCURRENCY=${CONCURRENCY:-400}
+REQUESTS=${REQUESTS:-40000}
+SEED_SIZE=${SEED_SIZE:-5000}
+JAVA_OPTS=${JAVA_OPTS:--Xms512m -Xmx512m}
+OUT=${1:-target/threading-comparison}
+BASE="http://localhost:${PORT}"
+
+command -v hey >/dev/null || { echo "hey is required: go install github.com/rakyll/hey@latest" >&2; exit 1; }
+[[ -f "$JAR" ]] || { echo "Jar not found at $JAR, run ./mvnw -DskipTests package first" >&2; exit 1; }
+mkdir -p "$OUT"
+
+seed_body() {
+    local values=()
+    for ((i = 0; i < SEED_SIZE; i++)); do
+        values+=("\"load test string number ${i} racecar level ${i}\"")
+    done
+    local IFS=,
+    printf '{"values":[%s]}' "${values[*]}"
+}
+
+# Prints "rps p50 p99 p999 5xx" from hey's CSV output (response-time and offset are in seconds)
+summarize() {
+    tail -n +2 "$1" | sort -t, -k1,1g | awk -F, '{
+        t[n++] = $1
+        end = $8 + $1; if (end > last) last = end
+        if ($7 >= 500) errors++
+    } END {
+        printf "%10.0f %9.2f %9.2f %9.2f %7d\n", n / last,
+            t[int(n * 0.50)] * 1000, t[int(n * 0.99)] * 1000, t[int(n * 0.999)] * 1000, errors
+    }'
+}
+
+run_mode() {
+    local mode=$1 profiles=$2
+    echo "Starting application (${mode} threads)" >&2
+    java $JAVA_OPTS -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" \
+        > "$OUT/app-${mode}.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null" RETURN
+
+    until curl -sf "$BASE/actuator/health" >/dev/null; do sleep 0.5; done
+    seed_body | curl -sf -o /dev/null -H 'Content-Type: application/json' --data-binary @- "$BASE/strings/batch"
+
+    # Warm up the JIT and connection pool before measuring
+    hey -n 5000 -c 50 "$BASE/strings?min_length=10&limit=20" >/dev/null
+
+    local scenario
+    for scenario in lookup filter conflict; do
+        local csv="$OUT/${mode}-${scenario}.csv"
+        case $scenario in
+            lookup) hey -n "$REQUESTS" -c "$CONCURRENCY" -o csv \
+                "$BASE/strings/load%20test%20string%20number%2042%20racecar%20level%2042" > "$csv" ;;
+            filter) hey -n "$REQUESTS" -c "$CONCURRENCY" -o csv \
+                "$BASE/strings?min_length=30&word_count=7&limit=50" > "$csv" ;;
+            conflict) hey -n "$REQUESTS" -c "$CONCURRENCY" -o csv -m POST -T application/json \
+                -d '{"value":"load test string number 7 racecar level 7"}' "$BASE/strings" > "$csv" ;;
+        esac
+        printf "%-9s %-9s %s\n" "$mode" "$scenario" "$(summarize "$csv")"
+    done
+}
+
+{
+    printf "%-9s %-9s %10s %9s %9s %9s %7s\n" mode scenario req/s p50_ms p99_ms p999_ms 5xx
+    run_mode platform default
+    run_mode virtual virtual-threads
+} | tee "$OUT/summary.txt"
@@ -0,0 +1,32 @@
+package dev.slethware.stringanalyzer.benchmark;
+
+import java.util.SplittableRandom;
+
+// Deterministic inputs so runs are comparable across commits
+final class BenchmarkInputs {
+
+    enum CharacterSet { ASCII, LATIN1, EMOJI }
+
+    private static final String ASCII_ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789.,;!?-";
+    private static final String LATIN1_ALPHABET = "àáâãäåæçèéêëìíîïðñòóôõöøùúûüýþÿÀÉÎÕÜßµ¿¡";
+
+    private BenchmarkInputs() {}
+
+    static String generate(CharacterSet characterSet, int length) {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            int roll = random.nextInt(100);
+            if (roll < 15) {
+                builder.append(' ');
+            } else if (characterSet == CharacterSet.LATIN1 && roll < 50) {
+                builder.append(LATIN1_ALPHABET.charAt(random.nextInt(LATIN1_ALPHABET.length())));
+            } else if (characterSet == CharacterSet.EMOJI && roll < 60 && builder.length() + 2 <= length) {
+                builder.appendCodePoint(0x1F600 + random.nextInt(80));
+            } else {
+                builder.append(ASCII_ALPHABET.charAt(random.nextInt(ASCII_ALPHABET.length())));
+            }
+        }
+        return builder.toString();
+    }
+}
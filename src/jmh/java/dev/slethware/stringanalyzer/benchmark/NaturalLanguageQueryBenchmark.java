@@ -0,0 +1,46 @@
+package dev.slethware.stringanalyzer.benchmark;
+
+import dev.slethware.stringanalyzer.utility.NaturalLanguageQueryParser;
+import dev.slethware.stringanalyzer.utility.NaturalLanguageQueryPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NaturalLanguageQueryBenchmark {
+
+    @Param({
+            "all single word palindromic strings",
+            "strings longer than 10 characters containing the letter z",
+            "two words at most 20 characters with the first vowel"
+    })
+    private String query;
+
+    private long counter;
+
+    @Benchmark
+    public Map<String, Object> parseQuery() {
+        return NaturalLanguageQueryParser.parseQuery(query);
+    }
+
+    // A unique suffix per call defeats the plan cache and measures the compiler itself
+    @Benchmark
+    public NaturalLanguageQueryPlan compileUncached() {
+        return NaturalLanguageQueryParser.compile(query + " #" + counter++);
+    }
+}
@@ -0,0 +1,80 @@
+package dev.slethware.stringanalyzer.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.slethware.stringanalyzer.config.AppConfig;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisResponse;
+import dev.slethware.stringanalyzer.models.entity.Strings;
+import dev.slethware.stringanalyzer.utility.CharacterFrequencyCodec;
+import dev.slethware.stringanalyzer.utility.StringAnalysis;
+import dev.slethware.stringanalyzer.utility.StringAnalysisMapper;
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int length;
+
+    @Param({"ASCII", "LATIN1", "EMOJI"})
+    private BenchmarkInputs.CharacterSet characterSet;
+
+    private ObjectMapper objectMapper;
+    private Strings entity;
+    private StringAnalysisResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new AppConfig().objectMapper();
+
+        String value = BenchmarkInputs.generate(characterSet, length);
+        StringAnalysis analysis = StringAnalyzerUtil.analyze(value);
+        entity = new Strings();
+        entity.setId(StringAnalyzerUtil.calculateSha256Hash(value));
+        entity.setValue(value);
+        entity.setLength(analysis.getLength());
+        entity.setIsPalindrome(analysis.isPalindrome());
+        entity.setUniqueCharacters(analysis.getUniqueCharacters());
+        entity.setWordCount(analysis.getWordCount());
+        entity.setCharacterSignature(analysis.getCharacterSignature());
+        entity.setCharacterFrequency(CharacterFrequencyCodec.encode(analysis));
+        entity.setCreatedAt(LocalDateTime.now());
+
+        response = StringAnalysisMapper.toResponse(entity);
+    }
+
+    @Benchmark
+    public StringAnalysisResponse mapToResponse() {
+        return StringAnalysisMapper.toResponse(entity);
+    }
+
+    // Fresh mapping each time so the lazily decoded frequency map is included in the cost
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(StringAnalysisMapper.toResponse(entity));
+    }
+
+    @Benchmark
+    public byte[] serializeCachedResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
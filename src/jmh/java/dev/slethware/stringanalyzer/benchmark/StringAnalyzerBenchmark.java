@@ -0,0 +1,83 @@
+package dev.slethware.stringanalyzer.benchmark;
+
+import dev.slethware.stringanalyzer.utility.CharacterFrequencyCodec;
+import dev.slethware.stringanalyzer.utility.StringAnalysis;
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringAnalyzerBenchmark {
+
+    @Param({"16", "1024", "65536", "1048576"})
+    private int length;
+
+    @Param({"ASCII", "LATIN1", "EMOJI"})
+    private BenchmarkInputs.CharacterSet characterSet;
+
+    private String value;
+    private StringAnalysis analysis;
+
+    @Setup
+    public void setUp() {
+        value = BenchmarkInputs.generate(characterSet, length);
+        analysis = StringAnalyzerUtil.analyze(value);
+    }
+
+    @Benchmark
+    public StringAnalysis analyze() {
+        return StringAnalyzerUtil.analyze(value);
+    }
+
+    @Benchmark
+    public int calculateLength() {
+        return StringAnalyzerUtil.calculateLength(value);
+    }
+
+    @Benchmark
+    public boolean isPalindrome() {
+        return StringAnalyzerUtil.isPalindrome(value);
+    }
+
+    @Benchmark
+    public int countUniqueCharacters() {
+        return StringAnalyzerUtil.countUniqueCharacters(value);
+    }
+
+    @Benchmark
+    public int countWords() {
+        return StringAnalyzerUtil.countWords(value);
+    }
+
+    @Benchmark
+    public Map<String, Integer> calculateCharacterFrequency() {
+        return StringAnalyzerUtil.calculateCharacterFrequency(value);
+    }
+
+    @Benchmark
+    public String calculateSha256Hash() {
+        return StringAnalyzerUtil.calculateSha256Hash(value);
+    }
+
+    @Benchmark
+    public byte[] encodeCharacterFrequency() {
+        return CharacterFrequencyCodec.encode(analysis);
+    }
+}
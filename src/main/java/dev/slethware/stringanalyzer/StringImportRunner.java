@@ -0,0 +1,44 @@
+package dev.slethware.stringanalyzer;
+
+import dev.slethware.stringanalyzer.service.StringImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Seeds the store from a newline-delimited file on startup, e.g.
+ * {@code java -jar app.jar --app.import.file=/data/strings.txt --app.import.exit-on-completion=true}.
+ * Rerunning after a crash resumes from the file's checkpoint.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.import.file")
+public class StringImportRunner implements ApplicationRunner {
+
+    private final StringImportService importService;
+    private final ApplicationContext context;
+
+    @Value("${app.import.file}")
+    private Path file;
+
+    @Value("${app.import.exit-on-completion:false}")
+    private boolean exitOnCompletion;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        importService.importFile(file);
+        if (exitOnCompletion) {
+            log.info("Import finished, shutting down");
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package dev.slethware.stringanalyzer.config;
+
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Analysis settings bound from {@code app.analysis.*}. Strings of at least {@code parallelThreshold} chars
+ * are analyzed in segments on the common fork/join pool.
+ */
+@ConfigurationProperties(prefix = "app.analysis")
+public record AnalysisProperties(@DefaultValue("" + StringAnalyzerUtil.DEFAULT_PARALLEL_THRESHOLD) int parallelThreshold) {
+
+    public AnalysisProperties {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("app.analysis.parallel-threshold must be positive: " + parallelThreshold);
+        }
+    }
+}
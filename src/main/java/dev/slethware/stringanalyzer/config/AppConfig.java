@@ -5,15 +5,31 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.cfg.CoercionAction;
 import com.fasterxml.jackson.databind.cfg.CoercionInputShape;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.fasterxml.jackson.databind.type.LogicalType;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @Configuration
+@EnableConfigurationProperties(AnalysisProperties.class)
 public class AppConfig {
 
+    private static final int RESPONSE_OVERHEAD_BYTES = 512;
+    private static final int FREQUENCY_ENTRY_BYTES = 96;
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
@@ -31,6 +47,41 @@ public class AppConfig {
                 .setCoercion(CoercionInputShape.Integer, CoercionAction.Fail)
                 .setCoercion(CoercionInputShape.Float, CoercionAction.Fail);
 
+        // Responses are written in full unless a request supplies a sparse fieldset filter
+        objectMapper.setFilterProvider(new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+
         return objectMapper;
     }
-}
\ No newline at end of file
+
+    // Bounded by estimated heap size rather than entry count, so a few huge values cannot crowd out the heap
+    @Bean
+    public Cache<String, StringAnalysisResponse> stringResponseCache(
+            @Value("${app.cache.max-weight:64MB}") DataSize maxWeight,
+            @Value("${app.cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        Cache<String, StringAnalysisResponse> cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight.toBytes())
+                .weigher(AppConfig::estimateResponseBytes)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        // Exposes hit, miss and eviction counts under /actuator/metrics/cache.*
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "strings.by-id");
+        return cache;
+    }
+
+    // Two bytes per char of the value, plus the character map once decoded for serialization
+    private static int estimateResponseBytes(String id, StringAnalysisResponse response) {
+        long bytes = RESPONSE_OVERHEAD_BYTES;
+        if (response.getValue() != null) {
+            bytes += 2L * response.getValue().length();
+        }
+        StringAnalysisResponse.StringPropertiesDto properties = response.getProperties();
+        if (properties != null && properties.getUniqueCharacters() != null) {
+            bytes += (long) FREQUENCY_ENTRY_BYTES * properties.getUniqueCharacters();
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+}
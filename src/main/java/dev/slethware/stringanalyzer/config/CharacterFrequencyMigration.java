@@ -0,0 +1,115 @@
+package dev.slethware.stringanalyzer.config;
+
+import dev.slethware.stringanalyzer.utility.CharacterFrequencyCodec;
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves histograms out of the legacy character_frequency join table into the packed
+ * strings.character_frequency column, then drops the legacy table. The legacy rows are streamed in
+ * string_id order and written back in bounded batches, so memory does not grow with the table; the table
+ * is only dropped once every batch has been written.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.migrate-legacy-frequency-table", havingValue = "true", matchIfMissing = true)
+public class CharacterFrequencyMigration implements ApplicationRunner {
+
+    private static final String LEGACY_TABLE = "CHARACTER_FREQUENCY";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        Integer tables = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) = ?",
+                Integer.class, LEGACY_TABLE);
+        if (tables == null || tables == 0) {
+            log.debug("No legacy character_frequency table found, skipping migration");
+            return;
+        }
+
+        log.info("Migrating legacy character_frequency rows into packed column");
+        LegacyRowHandler handler = new LegacyRowHandler();
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement("SELECT * FROM character_frequency ORDER BY string_id");
+            statement.setFetchSize(BATCH_SIZE);
+            return statement;
+        }, handler);
+        handler.finish();
+        jdbcTemplate.execute("DROP TABLE character_frequency");
+
+        log.info("Migrated character frequencies for {} strings and dropped legacy table", handler.migrated);
+    }
+
+    /**
+     * Rows arrive ordered by string_id, so only the histogram of the current id is held. Finished histograms
+     * are written in batches of {@link #BATCH_SIZE}.
+     */
+    private class LegacyRowHandler implements RowCallbackHandler {
+
+        private final List<Object[]> pending = new ArrayList<>(BATCH_SIZE);
+        private String currentId;
+        private Map<String, Integer> frequencyMap = new HashMap<>();
+        private long migrated;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String id = rs.getString("string_id");
+            if (!id.equals(currentId)) {
+                complete();
+                currentId = id;
+            }
+            frequencyMap.put(rs.getString("character"), rs.getInt("frequency"));
+        }
+
+        void finish() {
+            complete();
+            flush();
+        }
+
+        private void complete() {
+            if (currentId == null) {
+                return;
+            }
+            pending.add(new Object[]{
+                    CharacterFrequencyCodec.encode(frequencyMap),
+                    StringAnalyzerUtil.characterSignature(String.join("", frequencyMap.keySet())),
+                    currentId});
+            migrated++;
+            frequencyMap = new HashMap<>();
+            currentId = null;
+            if (pending.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(
+                    "UPDATE strings SET character_frequency = ?, character_signature = ? WHERE id = ?", pending);
+            pending.clear();
+        }
+    }
+}
@@ -1,17 +1,36 @@
 package dev.slethware.stringanalyzer.controller;
 
+import dev.slethware.stringanalyzer.models.dto.ApproximateStatisticsResponse;
 import dev.slethware.stringanalyzer.models.dto.NaturalLanguageFilterResponse;
+import dev.slethware.stringanalyzer.models.dto.SimilarStringsResponse;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisJobResponse;
 import dev.slethware.stringanalyzer.models.dto.StringAnalysisRequest;
 import dev.slethware.stringanalyzer.models.dto.StringAnalysisResponse;
+import dev.slethware.stringanalyzer.models.dto.StringBatchRequest;
+import dev.slethware.stringanalyzer.models.dto.StringBatchResponse;
+import dev.slethware.stringanalyzer.models.dto.StringCountResponse;
 import dev.slethware.stringanalyzer.models.dto.StringListResponse;
+import dev.slethware.stringanalyzer.models.dto.StringStatisticsResponse;
+import dev.slethware.stringanalyzer.service.CorpusVersion;
+import dev.slethware.stringanalyzer.service.StringAnalysisJobService;
 import dev.slethware.stringanalyzer.service.StringAnalysisService;
+import dev.slethware.stringanalyzer.service.StringStreamIngestionService;
+import dev.slethware.stringanalyzer.utility.ResponseFields;
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.net.URI;
 
 @RestController
 @RequestMapping("/strings")
@@ -20,39 +39,183 @@ import org.springframework.web.bind.annotation.*;
 public class StringAnalysisController {
 
     private final StringAnalysisService service;
+    private final StringAnalysisJobService jobService;
+    private final StringStreamIngestionService streamIngestionService;
+    private final CorpusVersion corpusVersion;
 
     @PostMapping
-    @Operation(summary = "Analyze and store a string")
-    public ResponseEntity<StringAnalysisResponse> analyzeString(@Valid @RequestBody StringAnalysisRequest request) {
+    @Operation(summary = "Analyze and store a string",
+            description = "Strings above the async threshold are accepted with 202 and analyzed in the background")
+    public ResponseEntity<?> analyzeString(@Valid @RequestBody StringAnalysisRequest request) {
+        if (jobService.shouldRunAsync(request)) {
+            StringAnalysisJobResponse job = jobService.submit(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/strings/jobs/" + job.getJobId()))
+                    .body(job);
+        }
         StringAnalysisResponse response = service.analyzeAndStore(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get the status of an asynchronous analysis job")
+    public ResponseEntity<StringAnalysisJobResponse> getJob(@PathVariable String jobId) {
+        StringAnalysisJobResponse response = jobService.getJob(jobId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/stream", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(summary = "Analyze and store a raw UTF-8 request body without buffering it in memory")
+    public ResponseEntity<StringAnalysisResponse> analyzeStream(InputStream body) {
+        StringAnalysisResponse response = streamIngestionService.analyzeAndStore(body);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Analyze and store a batch of strings")
+    public ResponseEntity<StringBatchResponse> analyzeBatch(@Valid @RequestBody StringBatchRequest request) {
+        StringBatchResponse response = service.analyzeAndStoreBatch(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get corpus-wide statistics")
+    public ResponseEntity<StringStatisticsResponse> getStatistics() {
+        StringStatisticsResponse response = service.getStatistics();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats/approximate")
+    @Operation(summary = "Get sketch-based corpus statistics",
+            description = "Distinct words from a HyperLogLog, word frequencies and heavy hitters from a count-min sketch")
+    public ResponseEntity<ApproximateStatisticsResponse> getApproximateStatistics(
+            @RequestParam(required = false) Integer top,
+            @RequestParam(required = false) String word) {
+        ApproximateStatisticsResponse response = service.getApproximateStatistics(top, word);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{value}")
-    @Operation(summary = "Get string by value")
-    public ResponseEntity<StringAnalysisResponse> getStringByValue(@PathVariable String value) {
+    @Operation(summary = "Get string by value",
+            description = "Supports If-None-Match; the ETag is derived from the SHA-256 id and the corpus version")
+    public ResponseEntity<StringAnalysisResponse> getStringByValue(@PathVariable String value,
+                                                                   WebRequest webRequest) {
+        // The tag needs only the hash of the path value, so a matching If-None-Match is answered before any lookup
+        String etag = corpusVersion.etag(StringAnalyzerUtil.calculateSha256Hash(value));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         StringAnalysisResponse response = service.getByValue(value);
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    @GetMapping("/{value}/similar")
+    @Operation(summary = "Find stored strings similar to a value",
+            description = "Candidates come from MinHash/LSH buckets; similarity is an estimated Jaccard index over character trigrams")
+    public ResponseEntity<SimilarStringsResponse> getSimilarStrings(
+            @PathVariable String value,
+            @RequestParam(required = false) Double min_similarity,
+            @RequestParam(required = false) Integer limit) {
+        SimilarStringsResponse response = service.findSimilar(value, min_similarity, limit);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
     @Operation(summary = "Get all strings with optional filters")
-    public ResponseEntity<StringListResponse> getAllStrings(
+    public ResponseEntity<MappingJacksonValue> getAllStrings(
             @RequestParam(required = false) Boolean is_palindrome,
             @RequestParam(required = false) Integer min_length,
             @RequestParam(required = false) Integer max_length,
             @RequestParam(required = false) Integer word_count,
-            @RequestParam(required = false) String contains_character) {
+            @RequestParam(required = false) String contains_character,
+            @RequestParam(required = false) String contains_substring,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
 
+        // Malformed input gets its 400 even when the tag matches
+        ResponseFields responseFields = ResponseFields.parse(fields);
+        service.validatePage(limit, cursor);
+        String etag = corpusVersion.etag();
+        if (webRequest.checkNotModified(etag)) {
+            // 304 and the ETag header are already set; no query runs
+            return null;
+        }
         StringListResponse response = service.getAllWithFilters(
-                is_palindrome, min_length, max_length, word_count, contains_character);
+                is_palindrome, min_length, max_length, word_count, contains_character, contains_substring, limit, cursor,
+                responseFields);
+        return ResponseEntity.ok().eTag(etag).body(withFields(response, responseFields));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all strings matching optional filters as NDJSON")
+    public ResponseEntity<StreamingResponseBody> streamAllStrings(
+            @RequestParam(required = false) Boolean is_palindrome,
+            @RequestParam(required = false) Integer min_length,
+            @RequestParam(required = false) Integer max_length,
+            @RequestParam(required = false) Integer word_count,
+            @RequestParam(required = false) String contains_character,
+            @RequestParam(required = false) String contains_substring,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
+
+        StreamingResponseBody body = service.streamWithFilters(
+                is_palindrome, min_length, max_length, word_count, contains_character, contains_substring, cursor,
+                ResponseFields.parse(fields));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(params = "count_only=true")
+    @Operation(summary = "Count strings matching optional filters without loading them")
+    public ResponseEntity<StringCountResponse> countStrings(
+            @RequestParam(required = false) Boolean is_palindrome,
+            @RequestParam(required = false) Integer min_length,
+            @RequestParam(required = false) Integer max_length,
+            @RequestParam(required = false) Integer word_count,
+            @RequestParam(required = false) String contains_character,
+            @RequestParam(required = false) String contains_substring) {
+
+        StringCountResponse response = service.countWithFilters(
+                is_palindrome, min_length, max_length, word_count, contains_character, contains_substring);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/filter-by-natural-language")
     @Operation(summary = "Filter strings using natural language query")
-    public ResponseEntity<NaturalLanguageFilterResponse> filterByNaturalLanguage(@RequestParam String query) {
-        NaturalLanguageFilterResponse response = service.filterByNaturalLanguage(query);
+    public ResponseEntity<MappingJacksonValue> filterByNaturalLanguage(
+            @RequestParam String query,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        // Malformed input gets its 400 or 422 even when the tag matches
+        ResponseFields responseFields = ResponseFields.parse(fields);
+        service.validatePage(limit, cursor);
+        service.validateNaturalLanguageQuery(query);
+        String etag = corpusVersion.etag();
+        if (webRequest.checkNotModified(etag)) {
+            // 304 and the ETag header are already set; no query runs
+            return null;
+        }
+        NaturalLanguageFilterResponse response = service.filterByNaturalLanguage(query, limit, cursor, responseFields);
+        return ResponseEntity.ok().eTag(etag).body(withFields(response, responseFields));
+    }
+
+    @GetMapping(value = "/filter-by-natural-language", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream strings matching a natural language query as NDJSON")
+    public ResponseEntity<StreamingResponseBody> streamByNaturalLanguage(
+            @RequestParam String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
+        StreamingResponseBody body = service.streamByNaturalLanguage(query, cursor, ResponseFields.parse(fields));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(value = "/filter-by-natural-language", params = "count_only=true")
+    @Operation(summary = "Count strings matching a natural language query without loading them")
+    public ResponseEntity<StringCountResponse> countByNaturalLanguage(@RequestParam String query) {
+        StringCountResponse response = service.countByNaturalLanguage(query);
         return ResponseEntity.ok(response);
     }
 
@@ -62,4 +225,11 @@ public class StringAnalysisController {
         service.deleteByValue(value);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // Applies the fields= selection when the body is written; without it every field is serialized
+    private static MappingJacksonValue withFields(Object body, ResponseFields fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(fields.filterProvider());
+        return value;
+    }
+}
@@ -4,11 +4,13 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -65,6 +67,41 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(body, e.getStatus());
     }
 
+    @ExceptionHandler(PayloadTooLargeException.class)
+    public ResponseEntity<Map<String, Object>> payloadTooLargeExceptionHandler(PayloadTooLargeException e) {
+        log.error(e.getMessage(), e);
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", e.getMessage());
+        body.put("statusCode", e.getStatus().value());
+        body.put("isSuccessful", false);
+        return new ResponseEntity<>(body, e.getStatus());
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> serviceUnavailableExceptionHandler(ServiceUnavailableException e) {
+        log.error(e.getMessage(), e);
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", e.getMessage());
+        body.put("statusCode", e.getStatus().value());
+        body.put("isSuccessful", false);
+        return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
+    // Raised when no pooled connection frees up within the Hikari connection timeout
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Map<String, Object>> databaseUnavailableHandler(Exception e) {
+        log.error("Database unavailable: {}", e.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", "Service is busy, please retry shortly");
+        body.put("statusCode", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("isSuccessful", false);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<Map<String, Object>> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
         log.error("Parameter conversion error: {}", ex.getMessage());
@@ -0,0 +1,53 @@
+package dev.slethware.stringanalyzer.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ApproximateStatisticsResponse {
+
+    // HyperLogLog estimate; words of deleted strings stay counted
+    @JsonProperty("distinct_words")
+    private Long distinctWords;
+
+    @JsonProperty("distinct_words_standard_error")
+    private Double distinctWordsStandardError;
+
+    @JsonProperty("top_words")
+    private List<WordFrequency> topWords;
+
+    // Count-min estimate for the word passed as word=, null when none was asked for
+    @JsonProperty("word_frequency")
+    private Long wordFrequency;
+
+    // Frequencies exceed the true count by at most this much, with the given confidence
+    @JsonProperty("frequency_error_bound")
+    private Long frequencyErrorBound;
+
+    @JsonProperty("frequency_confidence")
+    private Double frequencyConfidence;
+
+    // Exact, from the global character histogram
+    @JsonProperty("distinct_characters")
+    private Integer distinctCharacters;
+
+    private Boolean complete;
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class WordFrequency {
+        private String word;
+
+        @JsonProperty("estimated_count")
+        private Long estimatedCount;
+    }
+}
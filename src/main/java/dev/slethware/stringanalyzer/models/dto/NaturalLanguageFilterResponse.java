@@ -19,6 +19,9 @@ public class NaturalLanguageFilterResponse {
     @JsonProperty("interpreted_query")
     private InterpretedQuery interpretedQuery;
 
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
 
 
     @Getter
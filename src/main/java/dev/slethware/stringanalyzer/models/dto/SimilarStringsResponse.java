@@ -0,0 +1,36 @@
+package dev.slethware.stringanalyzer.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class SimilarStringsResponse {
+
+    private List<Match> data;
+    private Integer count;
+
+    @JsonProperty("min_similarity")
+    private Double minSimilarity;
+
+    public SimilarStringsResponse(List<Match> data, Double minSimilarity) {
+        this.data = data;
+        this.count = data.size();
+        this.minSimilarity = minSimilarity;
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class Match {
+
+        // MinHash estimate of the Jaccard similarity of the two trigram sets
+        private Double similarity;
+        private StringAnalysisResponse string;
+    }
+}
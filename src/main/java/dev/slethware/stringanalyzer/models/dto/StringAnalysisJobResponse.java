@@ -0,0 +1,38 @@
+package dev.slethware.stringanalyzer.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StringAnalysisJobResponse {
+
+    @JsonProperty("job_id")
+    private String jobId;
+
+    private JobStatus status;
+
+    @JsonProperty("submitted_at")
+    private LocalDateTime submittedAt;
+
+    @JsonProperty("completed_at")
+    private LocalDateTime completedAt;
+
+    private StringAnalysisResponse result;
+
+    private String error;
+
+    public enum JobStatus {
+        @JsonProperty("pending") PENDING,
+        @JsonProperty("running") RUNNING,
+        @JsonProperty("completed") COMPLETED,
+        @JsonProperty("failed") FAILED
+    }
+}
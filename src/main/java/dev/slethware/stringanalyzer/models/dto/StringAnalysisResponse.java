@@ -1,6 +1,11 @@
 package dev.slethware.stringanalyzer.models .dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.slethware.stringanalyzer.utility.CharacterFrequencyCodec;
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -9,10 +14,26 @@ import java.util.Map;
 
 @Getter
 @Setter
+@JsonFilter(StringAnalysisResponse.FIELD_FILTER)
 public class StringAnalysisResponse {
 
+    // Selects the fields to write for sparse fieldsets, see ResponseFields
+    public static final String FIELD_FILTER = "stringFields";
+
     private String id;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "The analyzed string. Omitted for strings ingested through POST /strings/stream, "
+            + "which are flagged with stored_out_of_line instead")
     private String value;
+
+    // Set only when the value was requested but lives in string_contents rather than on the row
+    @JsonProperty("stored_out_of_line")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Present and true when the string was ingested through POST /strings/stream. Its "
+            + "content is kept out of line and is not returned; filters still search it")
+    private Boolean storedOutOfLine;
+
     private StringPropertiesDto properties;
 
     @JsonProperty("created_at")
@@ -20,6 +41,7 @@ public class StringAnalysisResponse {
 
     @Getter
     @Setter
+    @JsonFilter(FIELD_FILTER)
     public static class StringPropertiesDto {
 
         private Integer length;
@@ -38,5 +60,16 @@ public class StringAnalysisResponse {
 
         @JsonProperty("character_frequency_map")
         private Map<String, Integer> characterFrequencyMap;
+
+        @JsonIgnore
+        private byte[] packedCharacterFrequency;
+
+        // Decoded only when the map is actually read, typically during serialization
+        public Map<String, Integer> getCharacterFrequencyMap() {
+            if (characterFrequencyMap == null && packedCharacterFrequency != null) {
+                characterFrequencyMap = CharacterFrequencyCodec.decode(packedCharacterFrequency);
+            }
+            return characterFrequencyMap;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package dev.slethware.stringanalyzer.models.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class StringBatchRequest {
+
+    @NotNull(message = "Values Field is Required")
+    private List<String> values;
+}
@@ -0,0 +1,42 @@
+package dev.slethware.stringanalyzer.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class StringBatchResponse {
+
+    private List<ItemResult> results;
+    private Integer created;
+    private Integer conflicts;
+    private Integer invalid;
+
+    public StringBatchResponse(List<ItemResult> results) {
+        this.results = results;
+        this.created = (int) results.stream().filter(r -> r.getStatus() == ItemStatus.CREATED).count();
+        this.conflicts = (int) results.stream().filter(r -> r.getStatus() == ItemStatus.CONFLICT).count();
+        this.invalid = (int) results.stream().filter(r -> r.getStatus() == ItemStatus.INVALID).count();
+    }
+
+    public enum ItemStatus {
+        @JsonProperty("created") CREATED,
+        @JsonProperty("conflict") CONFLICT,
+        @JsonProperty("invalid") INVALID
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class ItemResult {
+        private Integer index;
+        private ItemStatus status;
+        private String message;
+        private StringAnalysisResponse data;
+    }
+}
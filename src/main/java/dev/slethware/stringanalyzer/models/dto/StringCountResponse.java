@@ -0,0 +1,22 @@
+package dev.slethware.stringanalyzer.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class StringCountResponse {
+
+    private Long count;
+
+    @JsonProperty("filters_applied")
+    private Map<String, Object> filtersApplied;
+
+    // Where the count came from: statistics, index or query
+    private String source;
+}
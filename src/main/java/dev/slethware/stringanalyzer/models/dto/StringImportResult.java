@@ -0,0 +1,27 @@
+package dev.slethware.stringanalyzer.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class StringImportResult {
+
+    private final long lines;
+    private final long created;
+    private final long conflicts;
+    private final long invalid;
+    private final long skipped;
+    private final long bytesRead;
+    // The first lines skipped as invalid, capped so a badly broken file cannot grow the result unbounded
+    private final List<RejectedLine> rejectedLines;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RejectedLine {
+        private final long line;
+        private final String reason;
+    }
+}
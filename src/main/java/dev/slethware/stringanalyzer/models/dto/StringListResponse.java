@@ -19,9 +19,13 @@ public class StringListResponse {
     @JsonProperty("filters_applied")
     private Map<String, Object> filtersApplied;
 
-    public StringListResponse(List<StringAnalysisResponse> data, Map<String, Object> filtersApplied) {
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    public StringListResponse(List<StringAnalysisResponse> data, Map<String, Object> filtersApplied, String nextCursor) {
         this.data = data;
         this.count = data.size();
         this.filtersApplied = filtersApplied;
+        this.nextCursor = nextCursor;
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package dev.slethware.stringanalyzer.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class StringStatisticsResponse {
+
+    @JsonProperty("total_strings")
+    private Long totalStrings;
+
+    private Long palindromes;
+
+    @JsonProperty("palindrome_ratio")
+    private Double palindromeRatio;
+
+    @JsonProperty("average_length")
+    private Double averageLength;
+
+    @JsonProperty("average_word_count")
+    private Double averageWordCount;
+
+    @JsonProperty("length_histogram")
+    private Map<String, Long> lengthHistogram;
+
+    @JsonProperty("word_count_histogram")
+    private Map<String, Long> wordCountHistogram;
+
+    @JsonProperty("unique_characters_histogram")
+    private Map<String, Long> uniqueCharactersHistogram;
+
+    @JsonProperty("character_frequency")
+    private Map<String, Long> characterFrequency;
+
+    // False while the aggregates are still being loaded from existing rows after startup
+    private Boolean complete;
+}
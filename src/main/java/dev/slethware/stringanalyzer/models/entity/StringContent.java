@@ -0,0 +1,21 @@
+package dev.slethware.stringanalyzer.models.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// Out-of-line storage for values ingested as a stream; written and read through JDBC streams, never loaded whole
+@Entity
+@Table(name = "string_contents")
+@Getter
+@Setter
+public class StringContent {
+
+    @Id
+    @Column(name = "id", length = 64)
+    private java.lang.String id; // Same SHA-256 hash as the owning Strings row
+
+    @Lob
+    @Column(name = "content")
+    private java.lang.String content;
+}
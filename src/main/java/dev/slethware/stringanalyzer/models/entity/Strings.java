@@ -1,22 +1,31 @@
 package dev.slethware.stringanalyzer.models.entity;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "strings")
+@Table(name = "strings", indexes = {
+        @Index(name = "idx_strings_created_at_id", columnList = "created_at, id")
+})
 @Getter
 @Setter
-public class Strings {
+public class Strings implements Persistable<java.lang.String> {
+
+    // Largest VARCHAR H2 accepts; the default of 255 rejected anything longer
+    public static final int STRING_VALUE_MAX_LENGTH = 1_000_000_000;
 
     @Id
     @Column(name = "id", length = 64)
     private java.lang.String id; // SHA-256 hash serves as PK
 
-    @Column(name = "string_value", nullable = false)
+    // Null when the value was ingested as a stream and lives in string_contents
+    @Column(name = "string_value", length = STRING_VALUE_MAX_LENGTH)
     private java.lang.String value;
 
     private Integer length;
@@ -30,17 +39,45 @@ public class Strings {
     @Column(name = "word_count")
     private Integer wordCount;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "character_frequency", joinColumns = @JoinColumn(name = "string_id"))
-    @MapKeyColumn(name = "character")
-    @Column(name = "frequency")
-    private Map<java.lang.String, Integer> characterFrequencyMap;
+    @Column(name = "character_signature")
+    private Long characterSignature;
+
+    // Packed histogram, see CharacterFrequencyCodec
+    @Column(name = "character_frequency", length = 524288)
+    private byte[] characterFrequency;
+
+    // Packed MinHash signature for similarity search, see MinHashSignature
+    @Column(name = "minhash_signature", length = 256)
+    private byte[] minHashSignature;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Ids are assigned, so without this flag save() would merge (and SELECT) before every insert
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Truncated to the column precision so in-memory copies compare equal to stored rows
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @PostPersist
+    @PostLoad
+    protected void markNotNew() {
+        newEntity = false;
+    }
+
+    // A rolled-back insert has already run @PostPersist; retrying it must insert again, not merge over the winner
+    public void markNew() {
+        newEntity = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
     }
 }
\ No newline at end of file
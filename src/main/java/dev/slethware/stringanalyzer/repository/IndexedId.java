@@ -0,0 +1,6 @@
+package dev.slethware.stringanalyzer.repository;
+
+import java.time.LocalDateTime;
+
+// A row id returned by an in-memory index, with the creation time it is ordered and paged by
+public record IndexedId(String id, LocalDateTime createdAt) {}
@@ -0,0 +1,187 @@
+package dev.slethware.stringanalyzer.repository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Slot allocation for the in-memory indexes, with every slot also kept in (createdAt, id) order, the order
+ * pages are served in. A page is read by seeking to the cursor and walking forward until enough slots
+ * match, so the cost follows the page rather than the number of matches.
+ *
+ * <p>New rows almost always sort last and are appended; the rest are placed with a binary search and a
+ * short array move. A removed slot stays in the order, skipped by readers, until half the order is removed
+ * slots and it is compacted. Only then is the slot reused, so no slot is ever listed twice. During a bulk
+ * load rows are appended unsorted and sorted once at the end. Not thread-safe; owners guard it with their
+ * own lock.
+ */
+final class OrderedSlots {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private final BitSet removed = new BitSet();
+
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private LocalDateTime[] createdAts = new LocalDateTime[INITIAL_CAPACITY];
+    private int[] order = new int[INITIAL_CAPACITY];
+    private int orderSize;
+    private int removedCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+    private boolean bulk;
+
+    int size() {
+        return slotsById.size();
+    }
+
+    // Owners size their per-slot arrays to this after every add
+    int capacity() {
+        return ids.length;
+    }
+
+    Integer slotOf(String id) {
+        return slotsById.get(id);
+    }
+
+    /**
+     * Returns the new slot, or -1 when the id already has one. Creation times are kept at the database's
+     * microsecond precision so they compare equal to cursor positions read back from rows.
+     */
+    int add(String id, LocalDateTime createdAt) {
+        if (slotsById.containsKey(id)) {
+            return -1;
+        }
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+        ensureCapacity(slot + 1);
+        ids[slot] = id;
+        createdAts[slot] = createdAt != null ? createdAt.truncatedTo(ChronoUnit.MICROS) : LocalDateTime.MIN;
+        slotsById.put(id, slot);
+
+        if (orderSize == order.length) {
+            order = Arrays.copyOf(order, orderSize * 2);
+        }
+        int position = bulk || orderSize == 0 || compare(order[orderSize - 1], slot) < 0
+                ? orderSize
+                : seek(createdAts[slot], id);
+        System.arraycopy(order, position, order, position + 1, orderSize - position);
+        order[position] = slot;
+        orderSize++;
+        return slot;
+    }
+
+    // Returns the slot the id held, or -1 when it had none; the slot is not reused until the next compaction
+    int remove(String id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return -1;
+        }
+        removed.set(slot);
+        if (++removedCount > orderSize / 2) {
+            compact();
+        }
+        return slot;
+    }
+
+    void beginBulk() {
+        bulk = true;
+    }
+
+    void endBulk() {
+        bulk = false;
+        Integer[] sorted = new Integer[orderSize];
+        for (int i = 0; i < orderSize; i++) {
+            sorted[i] = order[i];
+        }
+        Arrays.sort(sorted, this::compare);
+        for (int i = 0; i < orderSize; i++) {
+            order[i] = sorted[i];
+        }
+    }
+
+    // First position that sorts after (createdAt, id); 0 without a cursor
+    int seek(LocalDateTime afterCreatedAt, String afterId) {
+        if (afterCreatedAt == null) {
+            return 0;
+        }
+        int low = 0;
+        int high = orderSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int slot = order[mid];
+            int cmp = createdAts[slot].compareTo(afterCreatedAt);
+            if (cmp < 0 || (cmp == 0 && ids[slot].compareTo(afterId) <= 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    int orderSize() {
+        return orderSize;
+    }
+
+    // The live slot at a position in the order, or -1 when that slot has been removed
+    int slotAt(int position) {
+        int slot = order[position];
+        return removed.get(slot) ? -1 : slot;
+    }
+
+    IndexedId indexedId(int slot) {
+        return new IndexedId(ids[slot], createdAts[slot]);
+    }
+
+    // Whether the slot sorts after (createdAt, id); every slot does without a cursor
+    boolean sortsAfter(int slot, LocalDateTime afterCreatedAt, String afterId) {
+        if (afterCreatedAt == null) {
+            return true;
+        }
+        int cmp = createdAts[slot].compareTo(afterCreatedAt);
+        return cmp > 0 || (cmp == 0 && ids[slot].compareTo(afterId) > 0);
+    }
+
+    // Compares two live slots in (createdAt, id) order
+    int compare(int left, int right) {
+        int cmp = createdAts[left].compareTo(createdAts[right]);
+        return cmp != 0 ? cmp : ids[left].compareTo(ids[right]);
+    }
+
+    private void compact() {
+        int kept = 0;
+        for (int i = 0; i < orderSize; i++) {
+            int slot = order[i];
+            if (removed.get(slot)) {
+                ids[slot] = null;
+                createdAts[slot] = null;
+                pushFreeSlot(slot);
+            } else {
+                order[kept++] = slot;
+            }
+        }
+        orderSize = kept;
+        removed.clear();
+        removedCount = 0;
+    }
+
+    private void pushFreeSlot(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        createdAts = Arrays.copyOf(createdAts, capacity);
+    }
+}
@@ -0,0 +1,343 @@
+package dev.slethware.stringanalyzer.repository;
+
+import dev.slethware.stringanalyzer.models.entity.Strings;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-process column store for the filterable attributes. Every row gets an int slot; lengths and
+ * signatures live in primitive arrays, palindromes in a bitset and word counts in per-value bitsets. Both a
+ * page and a count start from the intersection of those bitsets with the length range. A count is its
+ * cardinality; a page walks the slots in (createdAt, id) order from the cursor until it has enough matches,
+ * or, when few rows match, picks the first matches after the cursor straight from the set bits. Only the
+ * ids of a requested page are then loaded from the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StringAttributeIndex {
+
+    private final StringsRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.index.enabled:false}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final OrderedSlots slots = new OrderedSlots();
+    private final Set<String> removedDuringBuild = new HashSet<>();
+    private final BitSet live = new BitSet();
+    private final BitSet palindromes = new BitSet();
+    private final Map<Integer, BitSet> wordCountBuckets = new HashMap<>();
+
+    private int[] lengths = new int[0];
+    private int[] wordCounts = new int[0];
+    private long[] signatures = new long[0];
+
+    // (length << 32 | slot), sorted; rebuilt lazily after writes
+    private long[] lengthOrder = new long[0];
+    private boolean lengthOrderDirty = true;
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture.runAsync(this::build)
+                .exceptionally(e -> {
+                    log.error("Failed to build string attribute index, filters will use the database", e);
+                    return null;
+                });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void add(Strings entity) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            insert(entity.getId(), entity.getLength(), entity.getIsPalindrome(), entity.getWordCount(),
+                    entity.getCharacterSignature(), entity.getCreatedAt());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = slots.remove(id);
+            if (slot < 0) {
+                if (!ready) {
+                    removedDuringBuild.add(id);
+                }
+                return;
+            }
+            live.clear(slot);
+            palindromes.clear(slot);
+            BitSet bucket = wordCountBuckets.get(wordCounts[slot]);
+            if (bucket != null) {
+                bucket.clear(slot);
+            }
+            lengthOrderDirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} rows matching the filters that sort after the given (createdAt, id)
+     * position, in (createdAt, id) order. A non-null signature only pre-filters; callers still verify the
+     * substring.
+     */
+    public List<IndexedId> findIds(Boolean isPalindrome, Integer minLength, Integer maxLength, Integer wordCount,
+                                   Long characterSignature, LocalDateTime afterCreatedAt, String afterId,
+                                   int limit) {
+        if (minLength != null || maxLength != null) {
+            refreshLengthOrder();
+        }
+        lock.readLock().lock();
+        try {
+            BitSet matches = matchScalars(isPalindrome, minLength, maxLength, wordCount);
+            if (characterSignature != null) {
+                for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                    if ((signatures[slot] & characterSignature) != characterSignature) {
+                        matches.clear(slot);
+                    }
+                }
+            }
+            int start = slots.seek(afterCreatedAt, afterId);
+            long matchCount = matches.cardinality();
+            // Walking reads about limit * remaining / matches positions, selecting reads every match once
+            return matchCount * matchCount < (long) limit * (slots.orderSize() - start)
+                    ? selectFirst(matches, afterCreatedAt, afterId, limit)
+                    : walk(matches, start, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Dense matches: walks the (createdAt, id) order from the cursor, testing membership; caller holds the read lock
+    private List<IndexedId> walk(BitSet matches, int start, int limit) {
+        List<IndexedId> result = new ArrayList<>(Math.min(limit, slots.size()));
+        for (int position = start; position < slots.orderSize() && result.size() < limit; position++) {
+            int slot = slots.slotAt(position);
+            if (slot >= 0 && matches.get(slot)) {
+                result.add(slots.indexedId(slot));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sparse matches: slot numbers do not follow the (createdAt, id) order, so the set bits after the cursor
+     * are kept in a bounded max-heap and the first {@code limit} are sorted. Caller holds the read lock.
+     */
+    private List<IndexedId> selectFirst(BitSet matches, LocalDateTime afterCreatedAt, String afterId, int limit) {
+        PriorityQueue<Integer> first = new PriorityQueue<>((left, right) -> slots.compare(right, left));
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            if (!slots.sortsAfter(slot, afterCreatedAt, afterId)) {
+                continue;
+            }
+            if (first.size() < limit) {
+                first.add(slot);
+            } else if (slots.compare(slot, first.peek()) < 0) {
+                first.poll();
+                first.add(slot);
+            }
+        }
+        IndexedId[] result = new IndexedId[first.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = slots.indexedId(first.poll());
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Number of rows matching the scalar filters, as the cardinality of the intersected bitsets.
+     */
+    public long count(Boolean isPalindrome, Integer minLength, Integer maxLength, Integer wordCount) {
+        if (minLength != null || maxLength != null) {
+            refreshLengthOrder();
+        }
+        lock.readLock().lock();
+        try {
+            return matchScalars(isPalindrome, minLength, maxLength, wordCount).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock
+    private BitSet matchScalars(Boolean isPalindrome, Integer minLength, Integer maxLength, Integer wordCount) {
+        BitSet matches = (BitSet) live.clone();
+        if (isPalindrome != null) {
+            if (isPalindrome) {
+                matches.and(palindromes);
+            } else {
+                matches.andNot(palindromes);
+            }
+        }
+        if (wordCount != null) {
+            BitSet bucket = wordCountBuckets.get(wordCount);
+            if (bucket == null) {
+                return new BitSet();
+            }
+            matches.and(bucket);
+        }
+        if (minLength != null || maxLength != null) {
+            matches.and(lengthRange(minLength != null ? minLength : 0,
+                    maxLength != null ? maxLength : Integer.MAX_VALUE));
+        }
+        return matches;
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            slots.beginBulk();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<StringAttributes> rows = repository.streamAttributes()) {
+                rows.forEach(row -> {
+                    lock.writeLock().lock();
+                    try {
+                        if (!removedDuringBuild.contains(row.getId())) {
+                            insert(row.getId(), row.getLength(), row.getIsPalindrome(), row.getWordCount(),
+                                    row.getCharacterSignature(), row.getCreatedAt());
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                });
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            slots.endBulk();
+            removedDuringBuild.clear();
+            ready = true;
+            log.info("String attribute index built with {} rows in {} ms",
+                    slots.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(String id, Integer length, Boolean isPalindrome, Integer wordCount,
+                        Long characterSignature, LocalDateTime createdAt) {
+        int slot = slots.add(id, createdAt);
+        if (slot < 0) {
+            return;
+        }
+        ensureCapacity(slots.capacity());
+
+        lengths[slot] = length != null ? length : 0;
+        wordCounts[slot] = wordCount != null ? wordCount : 0;
+        // Rows without a signature must always survive the pre-filter
+        signatures[slot] = characterSignature != null ? characterSignature : -1L;
+        live.set(slot);
+        palindromes.set(slot, Boolean.TRUE.equals(isPalindrome));
+        wordCountBuckets.computeIfAbsent(wordCounts[slot], k -> new BitSet()).set(slot);
+        lengthOrderDirty = true;
+    }
+
+    private BitSet lengthRange(int minLength, int maxLength) {
+        BitSet range = new BitSet();
+        if (minLength > maxLength) {
+            return range;
+        }
+        if (!lengthOrderDirty) {
+            int from = lowerBound((long) minLength << 32);
+            int to = lowerBound(maxLength == Integer.MAX_VALUE ? Long.MAX_VALUE : (long) (maxLength + 1) << 32);
+            for (int i = from; i < to; i++) {
+                range.set((int) lengthOrder[i]);
+            }
+            return range;
+        }
+        // A write slipped in after the refresh; fall back to a column scan
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            if (lengths[slot] >= minLength && lengths[slot] <= maxLength) {
+                range.set(slot);
+            }
+        }
+        return range;
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = lengthOrder.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lengthOrder[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void refreshLengthOrder() {
+        if (!lengthOrderDirty) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!lengthOrderDirty) {
+                return;
+            }
+            long[] order = new long[live.cardinality()];
+            int index = 0;
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                order[index++] = ((long) lengths[slot] << 32) | slot;
+            }
+            Arrays.sort(order);
+            lengthOrder = order;
+            lengthOrderDirty = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= lengths.length) {
+            return;
+        }
+        lengths = Arrays.copyOf(lengths, capacity);
+        wordCounts = Arrays.copyOf(wordCounts, capacity);
+        signatures = Arrays.copyOf(signatures, capacity);
+    }
+}
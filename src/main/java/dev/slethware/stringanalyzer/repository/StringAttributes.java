@@ -0,0 +1,14 @@
+package dev.slethware.stringanalyzer.repository;
+
+import java.time.LocalDateTime;
+
+// Projection of the filterable columns, without the value or the frequency histogram
+public interface StringAttributes {
+
+    String getId();
+    Integer getLength();
+    Boolean getIsPalindrome();
+    Integer getWordCount();
+    Long getCharacterSignature();
+    LocalDateTime getCreatedAt();
+}
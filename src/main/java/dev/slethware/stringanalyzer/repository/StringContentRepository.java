@@ -0,0 +1,17 @@
+package dev.slethware.stringanalyzer.repository;
+
+import dev.slethware.stringanalyzer.models.entity.StringContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StringContentRepository extends JpaRepository<StringContent, String> {
+
+    // Bulk delete, so the LOB is never materialized the way deleteById would
+    @Modifying
+    @Query("DELETE FROM StringContent c WHERE c.id = :id")
+    int deleteContent(@Param("id") String id);
+}
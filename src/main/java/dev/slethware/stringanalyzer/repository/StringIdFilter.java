@@ -0,0 +1,136 @@
+package dev.slethware.stringanalyzer.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Counting Bloom filter over stored ids, used to skip the existence query for strings that are certainly
+ * new. Ids are SHA-256 hex, so the two hash functions for double hashing are read straight from the id.
+ * Counters are bytes updated with CAS and stick once they reach 255, so deletes never cause a false
+ * negative. The database primary key stays authoritative: a wrong "absent" only costs a rejected insert.
+ *
+ * <p>Until the existing ids have been loaded after startup every id is reported as possibly present.
+ */
+@Slf4j
+@Component
+public class StringIdFilter {
+
+    private static final VarHandle COUNTERS = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final int SATURATED = 0xFF;
+
+    private final StringsRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final byte[] counters;
+    private final int hashFunctions;
+
+    private volatile boolean ready;
+
+    public StringIdFilter(StringsRepository repository, TransactionTemplate transactionTemplate,
+                          @Value("${app.dedup.filter-enabled:true}") boolean enabled,
+                          @Value("${app.dedup.expected-strings:1000000}") int expectedStrings,
+                          @Value("${app.dedup.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedStrings < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid id filter sizing: expected-strings=" + expectedStrings
+                    + ", false-positive-rate=" + falsePositiveRate);
+        }
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+
+        double ln2 = Math.log(2);
+        long slots = (long) Math.ceil(-expectedStrings * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.counters = new byte[enabled ? (int) Math.min(slots, Integer.MAX_VALUE - 8) : 0];
+        this.hashFunctions = Math.max(1, (int) Math.round((double) slots / expectedStrings * ln2));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture.runAsync(this::load)
+                .exceptionally(e -> {
+                    log.error("Failed to load id filter, every insert will query for duplicates", e);
+                    return null;
+                });
+    }
+
+    /**
+     * False only when the id is certainly not stored.
+     */
+    public boolean mightContain(String id) {
+        if (!ready) {
+            return true;
+        }
+        long h1 = HexFormat.fromHexDigitsToLong(id, 0, 16);
+        long h2 = HexFormat.fromHexDigitsToLong(id, 16, 32) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            if ((byte) COUNTERS.getAcquire(counters, slot(h1, h2, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void add(String id) {
+        if (!enabled) {
+            return;
+        }
+        update(id, 1);
+    }
+
+    // Skipped while loading: the loader may or may not have counted the id yet, and an extra count is harmless
+    public void remove(String id) {
+        if (!ready) {
+            return;
+        }
+        update(id, -1);
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        AtomicLong loaded = new AtomicLong();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> ids = repository.streamIds()) {
+                ids.forEach(id -> {
+                    update(id, 1);
+                    loaded.incrementAndGet();
+                });
+            }
+        });
+        ready = true;
+        log.info("Id filter loaded with {} ids ({} counters, {} hash functions) in {} ms",
+                loaded.get(), counters.length, hashFunctions, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void update(String id, int delta) {
+        long h1 = HexFormat.fromHexDigitsToLong(id, 0, 16);
+        long h2 = HexFormat.fromHexDigitsToLong(id, 16, 32) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            int slot = slot(h1, h2, i);
+            int current;
+            do {
+                current = (byte) COUNTERS.getAcquire(counters, slot) & 0xFF;
+                if (current == SATURATED || (delta < 0 && current == 0)) {
+                    break;
+                }
+            } while (!COUNTERS.compareAndSet(counters, slot, (byte) current, (byte) (current + delta)));
+        }
+    }
+
+    private int slot(long h1, long h2, int i) {
+        return (int) Math.floorMod(h1 + i * h2, (long) counters.length);
+    }
+}
@@ -0,0 +1,9 @@
+package dev.slethware.stringanalyzer.repository;
+
+// Projection of the bulky columns; each query selects only the one that was requested
+public interface StringPayload {
+
+    String getId();
+    String getValue();
+    byte[] getCharacterFrequency();
+}
@@ -0,0 +1,8 @@
+package dev.slethware.stringanalyzer.repository;
+
+// Projection for similarity search; the signature is null for rows stored before signatures existed
+public interface StringSignature {
+
+    String getId();
+    byte[] getMinHashSignature();
+}
@@ -0,0 +1,255 @@
+package dev.slethware.stringanalyzer.repository;
+
+import dev.slethware.stringanalyzer.models.entity.Strings;
+import dev.slethware.stringanalyzer.utility.MinHashSignature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Locality-sensitive hash buckets over the stored MinHash signatures. Each row is filed under one key per
+ * signature band, so a lookup touches {@link MinHashSignature#BANDS} buckets instead of the corpus, and
+ * only rows sharing a whole band with the query become candidates. Candidates still need their signatures
+ * compared to get a similarity estimate.
+ *
+ * <p>Rows stored before signatures existed are signed from their value while the index is built. Streamed
+ * rows from that time have no value on the row and stay unsigned.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StringSimilarityIndex {
+
+    private static final int BACKFILL_CHUNK = 500;
+
+    private final StringsRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.similarity.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+    private final Set<String> removedDuringBuild = new HashSet<>();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture.runAsync(this::build)
+                .exceptionally(e -> {
+                    log.error("Failed to build similarity index, similarity searches will scan", e);
+                    return null;
+                });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void add(Strings entity) {
+        if (!enabled || entity.getMinHashSignature() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            insert(entity.getId(), entity.getMinHashSignature());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Strings entity) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                removedDuringBuild.add(entity.getId());
+            }
+            if (entity.getMinHashSignature() == null) {
+                return;
+            }
+            for (long key : MinHashSignature.bandKeys(MinHashSignature.decode(entity.getMinHashSignature()))) {
+                Bucket bucket = buckets.get(key);
+                if (bucket != null && bucket.remove(entity.getId())) {
+                    buckets.remove(key);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of rows sharing at least one band with the signature, or null while the index is still building.
+     */
+    public Set<String> findCandidates(int[] signature) {
+        if (!ready) {
+            return null;
+        }
+        long[] keys = MinHashSignature.bandKeys(signature);
+        lock.readLock().lock();
+        try {
+            Set<String> candidates = new HashSet<>();
+            for (long key : keys) {
+                Bucket bucket = buckets.get(key);
+                if (bucket != null) {
+                    bucket.addTo(candidates);
+                }
+            }
+            return candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        List<String> unsigned = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<StringSignature> rows = repository.streamSignatures()) {
+                rows.forEach(row -> {
+                    if (row.getMinHashSignature() == null) {
+                        unsigned.add(row.getId());
+                        return;
+                    }
+                    lock.writeLock().lock();
+                    try {
+                        if (!removedDuringBuild.contains(row.getId())) {
+                            insert(row.getId(), row.getMinHashSignature());
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                });
+            }
+        });
+        long signed = backfill(unsigned);
+
+        lock.writeLock().lock();
+        try {
+            removedDuringBuild.clear();
+            ready = true;
+            log.info("Similarity index built with {} buckets in {} ms ({} rows signed, {} left unsigned)",
+                    buckets.size(), (System.nanoTime() - start) / 1_000_000, signed, unsigned.size() - signed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns the number of rows signed
+    private long backfill(List<String> unsigned) {
+        long signed = 0;
+        for (int from = 0; from < unsigned.size(); from += BACKFILL_CHUNK) {
+            List<String> chunk = unsigned.subList(from, Math.min(from + BACKFILL_CHUNK, unsigned.size()));
+            Long chunkSigned = transactionTemplate.execute(status -> {
+                long count = 0;
+                for (StringPayload payload : repository.findValuesByIds(chunk)) {
+                    if (payload.getValue() == null) {
+                        continue;
+                    }
+                    byte[] signature = MinHashSignature.encode(MinHashSignature.of(payload.getValue()));
+                    if (repository.updateMinHashSignature(payload.getId(), signature) > 0) {
+                        count++;
+                        lock.writeLock().lock();
+                        try {
+                            if (!removedDuringBuild.contains(payload.getId())) {
+                                insert(payload.getId(), signature);
+                            }
+                        } finally {
+                            lock.writeLock().unlock();
+                        }
+                    }
+                }
+                return count;
+            });
+            signed += chunkSigned != null ? chunkSigned : 0;
+        }
+        return signed;
+    }
+
+    private void insert(String id, byte[] signature) {
+        for (long key : MinHashSignature.bandKeys(MinHashSignature.decode(signature))) {
+            buckets.computeIfAbsent(key, k -> new Bucket()).add(id);
+        }
+    }
+
+    // Unordered ids; most buckets hold a few rows and are scanned, popular bands switch to a hash set
+    private static final class Bucket {
+
+        private static final int MAX_SCANNED = 8;
+
+        private String[] ids = new String[1];
+        private int size;
+        private Set<String> set;
+
+        void add(String id) {
+            if (set != null) {
+                set.add(id);
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                if (ids[i].equals(id)) {
+                    return;
+                }
+            }
+            if (size == MAX_SCANNED) {
+                set = new HashSet<>(Arrays.asList(ids).subList(0, size));
+                set.add(id);
+                ids = null;
+                size = 0;
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        // Returns true once the bucket is empty
+        boolean remove(String id) {
+            if (set != null) {
+                set.remove(id);
+                return set.isEmpty();
+            }
+            for (int i = 0; i < size; i++) {
+                if (ids[i].equals(id)) {
+                    ids[i] = ids[--size];
+                    ids[size] = null;
+                    break;
+                }
+            }
+            return size == 0;
+        }
+
+        void addTo(Set<String> candidates) {
+            if (set != null) {
+                candidates.addAll(set);
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                candidates.add(ids[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dev.slethware.stringanalyzer.repository;
+
+// Projection of the columns that feed corpus statistics; value is null for streamed rows
+public interface StringStatisticsAttributes {
+
+    String getId();
+    Integer getLength();
+    Boolean getIsPalindrome();
+    Integer getWordCount();
+    Integer getUniqueCharacters();
+    byte[] getCharacterFrequency();
+    String getValue();
+}
@@ -0,0 +1,14 @@
+package dev.slethware.stringanalyzer.repository;
+
+import java.time.LocalDateTime;
+
+// Projection of the scalar response columns, without the value or the frequency histogram
+public interface StringSummary {
+
+    String getId();
+    Integer getLength();
+    Boolean getIsPalindrome();
+    Integer getUniqueCharacters();
+    Integer getWordCount();
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,11 @@
+package dev.slethware.stringanalyzer.repository;
+
+import java.time.LocalDateTime;
+
+// Projection for building the trigram index; value is null for streamed rows
+public interface StringText {
+
+    String getId();
+    String getValue();
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,277 @@
+package dev.slethware.stringanalyzer.repository;
+
+import dev.slethware.stringanalyzer.models.entity.Strings;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process trigram inverted index for substring filters. Every row gets an int slot, and each distinct
+ * run of three chars in its value maps to a sorted int array of the slots containing it. A needle of three
+ * or more chars resolves to the intersection of its trigrams' posting lists, shortest first. A page then
+ * walks the slots in (createdAt, id) order from the cursor and stops once it has enough matches. Matches
+ * are only candidates; callers still verify the substring.
+ *
+ * <p>Values longer than the indexing cap, and streamed rows whose value lives in string_contents, are not
+ * tokenized. They are returned as candidates for every needle.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StringTrigramIndex {
+
+    public static final int GRAM_LENGTH = 3;
+
+    private final StringsRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.trigram.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.trigram.max-indexed-length:65536}")
+    private int maxIndexedLength;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final OrderedSlots slots = new OrderedSlots();
+    private final Set<String> removedDuringBuild = new HashSet<>();
+    private final Map<Long, Posting> postings = new HashMap<>();
+    private final BitSet unindexed = new BitSet();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture.runAsync(this::build)
+                .exceptionally(e -> {
+                    log.error("Failed to build trigram index, substring filters will scan", e);
+                    return null;
+                });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void add(Strings entity) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            insert(entity.getId(), entity.getValue(), entity.getCreatedAt());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Takes the entity rather than the id: the value is needed to find the posting lists to update
+    public void remove(Strings entity) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = slots.remove(entity.getId());
+            if (slot < 0) {
+                if (!ready) {
+                    removedDuringBuild.add(entity.getId());
+                }
+                return;
+            }
+            if (!unindexed.get(slot)) {
+                for (long gram : trigrams(entity.getValue())) {
+                    Posting posting = postings.get(gram);
+                    if (posting != null && posting.remove(slot)) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+            unindexed.clear(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} rows that may contain the needle and sort after the given (createdAt, id)
+     * position, in (createdAt, id) order. Returns null when the index cannot narrow the search: it is still
+     * building, or the needle is shorter than a trigram.
+     */
+    public List<IndexedId> findIds(String needle, LocalDateTime afterCreatedAt, String afterId, int limit) {
+        if (!ready || needle == null || needle.length() < GRAM_LENGTH) {
+            return null;
+        }
+        long[] grams = trigrams(needle);
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = new BitSet();
+            Posting[] lists = new Posting[grams.length];
+            boolean allPresent = true;
+            for (int i = 0; i < grams.length && allPresent; i++) {
+                lists[i] = postings.get(grams[i]);
+                allPresent = lists[i] != null;
+            }
+            if (allPresent) {
+                Arrays.sort(lists, Comparator.comparingInt(posting -> posting.size));
+                int[] candidates = Arrays.copyOf(lists[0].slots, lists[0].size);
+                int size = candidates.length;
+                for (int i = 1; i < lists.length && size > 0; i++) {
+                    size = intersect(candidates, size, lists[i]);
+                }
+                for (int i = 0; i < size; i++) {
+                    matches.set(candidates[i]);
+                }
+            }
+
+            List<IndexedId> result = new ArrayList<>();
+            for (int position = slots.seek(afterCreatedAt, afterId);
+                 position < slots.orderSize() && result.size() < limit; position++) {
+                int slot = slots.slotAt(position);
+                if (slot >= 0 && (matches.get(slot) || unindexed.get(slot))) {
+                    result.add(slots.indexedId(slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            slots.beginBulk();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<StringText> rows = repository.streamTexts()) {
+                rows.forEach(row -> {
+                    lock.writeLock().lock();
+                    try {
+                        if (!removedDuringBuild.contains(row.getId())) {
+                            insert(row.getId(), row.getValue(), row.getCreatedAt());
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                });
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            slots.endBulk();
+            removedDuringBuild.clear();
+            ready = true;
+            log.info("Trigram index built with {} rows and {} trigrams in {} ms",
+                    slots.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(String id, String value, LocalDateTime createdAt) {
+        int slot = slots.add(id, createdAt);
+        if (slot < 0) {
+            return;
+        }
+        if (value == null || value.length() > maxIndexedLength) {
+            unindexed.set(slot);
+        } else {
+            for (long gram : trigrams(value)) {
+                postings.computeIfAbsent(gram, key -> new Posting()).add(slot);
+            }
+        }
+    }
+
+    // Distinct trigrams, each packed as three 16-bit chars
+    private static long[] trigrams(CharSequence value) {
+        int count = value.length() - GRAM_LENGTH + 1;
+        if (count <= 0) {
+            return new long[0];
+        }
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    // Keeps the slots also present in the posting, in place; both inputs are sorted
+    private static int intersect(int[] slots, int size, Posting posting) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < size && j < posting.size; i++) {
+            int slot = slots[i];
+            while (j < posting.size && posting.slots[j] < slot) {
+                j++;
+            }
+            if (j < posting.size && posting.slots[j] == slot) {
+                slots[kept++] = slot;
+            }
+        }
+        return kept;
+    }
+
+    // Sorted slot array; slots are reused, so inserts are positioned rather than appended
+    private static final class Posting {
+
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            int index = Arrays.binarySearch(slots, 0, size, slot);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            slots[index] = slot;
+            size++;
+        }
+
+        // Returns true once the posting is empty
+        boolean remove(int slot) {
+            int index = Arrays.binarySearch(slots, 0, size, slot);
+            if (index >= 0) {
+                System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+                size--;
+            }
+            return size == 0;
+        }
+    }
+}
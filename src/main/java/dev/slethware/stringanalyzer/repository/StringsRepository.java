@@ -1,28 +1,251 @@
 package dev.slethware.stringanalyzer.repository;
 
 import dev.slethware.stringanalyzer.models.entity.Strings;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface StringsRepository extends JpaRepository<Strings, String> {
 
     Optional<Strings> findByValue(String value);
 
-    @Query("SELECT s FROM Strings s WHERE " +
-            "(:isPalindrome IS NULL OR s.isPalindrome = :isPalindrome) AND " +
+    @Query("SELECT s.id FROM Strings s WHERE s.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    // string_value and string_contents.content are CLOBs, which HQL's LOCATE rejects, so H2's INSTR is called
+    // through sql(); it searches the LOB in the database without materializing it in the application
+    String CONTAINS_CONDITION = "(CAST(sql('INSTR(?, ?)', s.value, :containsCharacter) AS Integer) > 0 OR " +
+            "(s.value IS NULL AND EXISTS (SELECT 1 FROM StringContent c " +
+            "WHERE c.id = s.id AND CAST(sql('INSTR(?, ?)', c.content, :containsCharacter) AS Integer) > 0)))";
+
+    String CONTAINS_SUBSTRING_CONDITION = "(CAST(sql('INSTR(?, ?)', s.value, :containsSubstring) AS Integer) > 0 OR " +
+            "(s.value IS NULL AND EXISTS (SELECT 1 FROM StringContent c " +
+            "WHERE c.id = s.id AND CAST(sql('INSTR(?, ?)', c.content, :containsSubstring) AS Integer) > 0)))";
+
+    String NEEDLE_PREDICATES = "(:containsCharacter IS NULL OR " + CONTAINS_CONDITION + ") AND " +
+            "(:containsSubstring IS NULL OR " + CONTAINS_SUBSTRING_CONDITION + ")";
+
+    String FILTER_PREDICATES = "(:isPalindrome IS NULL OR s.isPalindrome = :isPalindrome) AND " +
             "(:minLength IS NULL OR s.length >= :minLength) AND " +
             "(:maxLength IS NULL OR s.length <= :maxLength) AND " +
-            "(:wordCount IS NULL OR s.wordCount = :wordCount)")
-    List<Strings> findByFilters(
+            "(:wordCount IS NULL OR s.wordCount = :wordCount) AND " +
+            "(:characterSignature IS NULL OR s.characterSignature IS NULL OR " +
+            "FUNCTION('BITAND', s.characterSignature, CAST(:characterSignature AS Long)) = :characterSignature) AND " +
+            NEEDLE_PREDICATES;
+
+    String FILTER_CONDITIONS = "FROM Strings s WHERE " + FILTER_PREDICATES;
+
+    // The leading created_at >= bound is a range on idx_strings_created_at_id, so a page seeks to the cursor
+    // and reads in index order; the second condition only skips the rows at the cursor's own timestamp
+    String AFTER_CURSOR = " AND s.createdAt >= :afterCreatedAt AND " +
+            "(s.createdAt > :afterCreatedAt OR s.id > :afterId)";
+
+    String KEYSET_ORDER = " ORDER BY s.createdAt, s.id";
+
+    String SUMMARY_COLUMNS = "SELECT s.id AS id, s.length AS length, s.isPalindrome AS isPalindrome, " +
+            "s.uniqueCharacters AS uniqueCharacters, s.wordCount AS wordCount, s.createdAt AS createdAt ";
+
+    // The first page and later pages are separate queries: a null-cursor guard in one shared query would
+    // OR the keyset bound away and keep the database from using it as an index range
+    default List<Strings> findByFilters(
+            Boolean isPalindrome, Integer minLength, Integer maxLength, Integer wordCount,
+            String containsCharacter, String containsSubstring, Long characterSignature,
+            LocalDateTime afterCreatedAt, String afterId, Pageable pageable) {
+        return afterCreatedAt == null
+                ? findByFiltersFromStart(isPalindrome, minLength, maxLength, wordCount,
+                containsCharacter, containsSubstring, characterSignature, pageable)
+                : findByFiltersAfter(isPalindrome, minLength, maxLength, wordCount,
+                containsCharacter, containsSubstring, characterSignature, afterCreatedAt, afterId, pageable);
+    }
+
+    @Query("SELECT s " + FILTER_CONDITIONS + KEYSET_ORDER)
+    List<Strings> findByFiltersFromStart(
             @Param("isPalindrome") Boolean isPalindrome,
             @Param("minLength") Integer minLength,
             @Param("maxLength") Integer maxLength,
-            @Param("wordCount") Integer wordCount
+            @Param("wordCount") Integer wordCount,
+            @Param("containsCharacter") String containsCharacter,
+            @Param("containsSubstring") String containsSubstring,
+            @Param("characterSignature") Long characterSignature,
+            Pageable pageable
     );
-}
\ No newline at end of file
+
+    @Query("SELECT s " + FILTER_CONDITIONS + AFTER_CURSOR + KEYSET_ORDER)
+    List<Strings> findByFiltersAfter(
+            @Param("isPalindrome") Boolean isPalindrome,
+            @Param("minLength") Integer minLength,
+            @Param("maxLength") Integer maxLength,
+            @Param("wordCount") Integer wordCount,
+            @Param("containsCharacter") String containsCharacter,
+            @Param("containsSubstring") String containsSubstring,
+            @Param("characterSignature") Long characterSignature,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") String afterId,
+            Pageable pageable
+    );
+
+    // Must be consumed inside a transaction and closed afterwards
+    default Stream<Strings> streamByFilters(
+            Boolean isPalindrome, Integer minLength, Integer maxLength, Integer wordCount,
+            String containsCharacter, String containsSubstring, Long characterSignature,
+            LocalDateTime afterCreatedAt, String afterId) {
+        return afterCreatedAt == null
+                ? streamByFiltersFromStart(isPalindrome, minLength, maxLength, wordCount,
+                containsCharacter, containsSubstring, characterSignature)
+                : streamByFiltersAfter(isPalindrome, minLength, maxLength, wordCount,
+                containsCharacter, containsSubstring, characterSignature, afterCreatedAt, afterId);
+    }
+
+    @Query("SELECT s " + FILTER_CONDITIONS + KEYSET_ORDER)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Strings> streamByFiltersFromStart(
+            @Param("isPalindrome") Boolean isPalindrome,
+            @Param("minLength") Integer minLength,
+            @Param("maxLength") Integer maxLength,
+            @Param("wordCount") Integer wordCount,
+            @Param("containsCharacter") String containsCharacter,
+            @Param("containsSubstring") String containsSubstring,
+            @Param("characterSignature") Long characterSignature
+    );
+
+    @Query("SELECT s " + FILTER_CONDITIONS + AFTER_CURSOR + KEYSET_ORDER)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Strings> streamByFiltersAfter(
+            @Param("isPalindrome") Boolean isPalindrome,
+            @Param("minLength") Integer minLength,
+            @Param("maxLength") Integer maxLength,
+            @Param("wordCount") Integer wordCount,
+            @Param("containsCharacter") String containsCharacter,
+            @Param("containsSubstring") String containsSubstring,
+            @Param("characterSignature") Long characterSignature,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") String afterId
+    );
+
+    // Scalar columns only; value and histogram are fetched by id when a response asks for them
+    default List<StringSummary> findSummariesByFilters(
+            Boolean isPalindrome, Integer minLength, Integer maxLength, Integer wordCount,
+            String containsCharacter, String containsSubstring, Long characterSignature,
+            LocalDateTime afterCreatedAt, String afterId, Pageable pageable) {
+        return afterCreatedAt == null
+                ? findSummariesByFiltersFromStart(isPalindrome, minLength, maxLength, wordCount,
+                containsCharacter, containsSubstring, characterSignature, pageable)
+                : findSummariesByFiltersAfter(isPalindrome, minLength, maxLength, wordCount,
+                containsCharacter, containsSubstring, characterSignature, afterCreatedAt, afterId, pageable);
+    }
+
+    @Query(SUMMARY_COLUMNS + FILTER_CONDITIONS + KEYSET_ORDER)
+    List<StringSummary> findSummariesByFiltersFromStart(
+            @Param("isPalindrome") Boolean isPalindrome,
+            @Param("minLength") Integer minLength,
+            @Param("maxLength") Integer maxLength,
+            @Param("wordCount") Integer wordCount,
+            @Param("containsCharacter") String containsCharacter,
+            @Param("containsSubstring") String containsSubstring,
+            @Param("characterSignature") Long characterSignature,
+            Pageable pageable
+    );
+
+    @Query(SUMMARY_COLUMNS + FILTER_CONDITIONS + AFTER_CURSOR + KEYSET_ORDER)
+    List<StringSummary> findSummariesByFiltersAfter(
+            @Param("isPalindrome") Boolean isPalindrome,
+            @Param("minLength") Integer minLength,
+            @Param("maxLength") Integer maxLength,
+            @Param("wordCount") Integer wordCount,
+            @Param("containsCharacter") String containsCharacter,
+            @Param("containsSubstring") String containsSubstring,
+            @Param("characterSignature") Long characterSignature,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") String afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT COUNT(s) FROM Strings s WHERE " + FILTER_PREDICATES)
+    long countByFilters(
+            @Param("isPalindrome") Boolean isPalindrome,
+            @Param("minLength") Integer minLength,
+            @Param("maxLength") Integer maxLength,
+            @Param("wordCount") Integer wordCount,
+            @Param("containsCharacter") String containsCharacter,
+            @Param("containsSubstring") String containsSubstring,
+            @Param("characterSignature") Long characterSignature
+    );
+
+    @Query(SUMMARY_COLUMNS + "FROM Strings s WHERE s.id IN :ids")
+    List<StringSummary> findSummariesByIds(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT s.id FROM Strings s WHERE s.id IN :ids AND " + NEEDLE_PREDICATES)
+    List<String> findIdsContaining(@Param("ids") Collection<String> ids,
+                                   @Param("containsCharacter") String containsCharacter,
+                                   @Param("containsSubstring") String containsSubstring);
+
+    @Query("SELECT s.id AS id, s.value AS value FROM Strings s WHERE s.id IN :ids")
+    List<StringPayload> findValuesByIds(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT s.id AS id, s.characterFrequency AS characterFrequency FROM Strings s WHERE s.id IN :ids")
+    List<StringPayload> findCharacterFrequenciesByIds(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT s.id AS id, s.value AS value, s.createdAt AS createdAt FROM Strings s")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<StringText> streamTexts();
+
+    @Query("SELECT s.id AS id, s.minHashSignature AS minHashSignature FROM Strings s")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1024"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<StringSignature> streamSignatures();
+
+    @Query("SELECT s.id AS id, s.minHashSignature AS minHashSignature FROM Strings s WHERE s.id IN :ids")
+    List<StringSignature> findSignaturesByIds(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("UPDATE Strings s SET s.minHashSignature = :signature WHERE s.id = :id")
+    int updateMinHashSignature(@Param("id") String id, @Param("signature") byte[] signature);
+
+    @Query("SELECT s.id FROM Strings s")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1024"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<String> streamIds();
+
+    @Query("SELECT s.id AS id, s.length AS length, s.isPalindrome AS isPalindrome, s.wordCount AS wordCount, " +
+            "s.characterSignature AS characterSignature, s.createdAt AS createdAt FROM Strings s")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1024"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<StringAttributes> streamAttributes();
+
+    @Query("SELECT s.id AS id, s.length AS length, s.isPalindrome AS isPalindrome, s.wordCount AS wordCount, " +
+            "s.uniqueCharacters AS uniqueCharacters, s.characterFrequency AS characterFrequency, " +
+            "s.value AS value FROM Strings s")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<StringStatisticsAttributes> streamStatisticsAttributes();
+}
@@ -0,0 +1,383 @@
+package dev.slethware.stringanalyzer.service;
+
+import dev.slethware.stringanalyzer.models.dto.ApproximateStatisticsResponse;
+import dev.slethware.stringanalyzer.models.dto.StringStatisticsResponse;
+import dev.slethware.stringanalyzer.models.entity.Strings;
+import dev.slethware.stringanalyzer.repository.StringStatisticsAttributes;
+import dev.slethware.stringanalyzer.repository.StringsRepository;
+import dev.slethware.stringanalyzer.utility.CharacterFrequencyCodec;
+import dev.slethware.stringanalyzer.utility.CountMinSketch;
+import dev.slethware.stringanalyzer.utility.HyperLogLog;
+import dev.slethware.stringanalyzer.utility.StringAnalysis;
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Corpus-wide aggregates kept current on every insert and delete. Scalars and histogram buckets are
+ * LongAdders and the global character histogram is an AtomicLongArray indexed by char, so writers never
+ * lock and a snapshot costs the same whatever the corpus size. Histograms use power-of-two buckets.
+ *
+ * <p>Words are summarized by fixed-size sketches: a HyperLogLog for the number of distinct words and a
+ * count-min sketch for word frequencies, with a bounded set of heavy-hitter candidates re-estimated on
+ * read. Tokenizing a value costs a pass over it, so writes hand it to a single background sketcher instead
+ * of doing it on the request thread; when the sketcher falls behind by a full queue the writer tokenizes
+ * its own value. Word answers can therefore trail the scalars briefly. Candidates are split into stripes by
+ * word hash, so offering a word locks and scans one small stripe. Streamed rows carry no value on the row
+ * and do not contribute words.
+ *
+ * <p>A delete subtracts its words from the count-min sketch, which is linear, so frequencies afterwards are
+ * what they would be had the string never been added, and its candidates are re-offered at their lowered
+ * estimates. The HyperLogLog is insert-only: distinct words keep counting the words of deleted strings, an
+ * overcount that lasts until a restart rebuilds the sketches from the stored rows.
+ *
+ * <p>Rows that already exist at startup are loaded in the background. Until then, writes go through a
+ * lock that tracks ids so a row is never counted both by the loader and by a concurrent write.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CorpusStatistics {
+
+    private static final int BUCKETS = 33;
+    private static final int DISTINCT_WORDS_PRECISION = 14;
+    private static final int WORD_SKETCH_DEPTH = 4;
+    private static final int WORD_SKETCH_WIDTH = 1 << 16;
+    private static final int CANDIDATE_STRIPES = 32;
+    private static final int CANDIDATES_PER_STRIPE = 16;
+    private static final int WORD_SKETCH_QUEUE_CAPACITY = 1024;
+
+    private final StringsRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder palindromes = new LongAdder();
+    private final LongAdder totalLength = new LongAdder();
+    private final LongAdder totalWords = new LongAdder();
+    private final LongAdder[] lengthBuckets = newBuckets();
+    private final LongAdder[] wordCountBuckets = newBuckets();
+    private final LongAdder[] uniqueCharacterBuckets = newBuckets();
+    private final AtomicLongArray characterFrequency = new AtomicLongArray(Character.MAX_VALUE + 1);
+    private final HyperLogLog distinctWords = new HyperLogLog(DISTINCT_WORDS_PRECISION);
+    private final CountMinSketch wordFrequency = new CountMinSketch(WORD_SKETCH_DEPTH, WORD_SKETCH_WIDTH);
+    private final LongAdder sketchedWords = new LongAdder();
+
+    private final CandidateStripe[] candidateStripes = newCandidateStripes();
+    private ThreadPoolExecutor wordSketcher;
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final Set<String> loadedIds = new HashSet<>();
+    private final Set<String> changedDuringLoad = new HashSet<>();
+    private volatile boolean loaded;
+
+    @PostConstruct
+    void start() {
+        wordSketcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(WORD_SKETCH_QUEUE_CAPACITY), new CustomizableThreadFactory("word-sketch-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        wordSketcher.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        CompletableFuture.runAsync(this::load)
+                .exceptionally(e -> {
+                    log.error("Failed to load corpus statistics from existing rows", e);
+                    return null;
+                });
+    }
+
+    public void add(Strings strings) {
+        if (!loaded && applyDuringLoad(strings.getId(), false)) {
+            return;
+        }
+        apply(strings.getLength(), strings.getIsPalindrome(), strings.getWordCount(),
+                strings.getUniqueCharacters(), strings.getCharacterFrequency(), 1);
+        sketchWords(strings.getValue(), 1);
+    }
+
+    public void remove(Strings strings) {
+        if (!loaded && applyDuringLoad(strings.getId(), true)) {
+            return;
+        }
+        apply(strings.getLength(), strings.getIsPalindrome(), strings.getWordCount(),
+                strings.getUniqueCharacters(), strings.getCharacterFrequency(), -1);
+        sketchWords(strings.getValue(), -1);
+    }
+
+    // Exact count straight from the aggregates, or null until existing rows have been loaded
+    public Long count(Boolean isPalindrome) {
+        if (!loaded) {
+            return null;
+        }
+        if (isPalindrome == null) {
+            return total.sum();
+        }
+        long palindromeCount = palindromes.sum();
+        return isPalindrome ? palindromeCount : total.sum() - palindromeCount;
+    }
+
+    public StringStatisticsResponse snapshot() {
+        long count = total.sum();
+        long palindromeCount = palindromes.sum();
+
+        Map<String, Long> characters = new LinkedHashMap<>();
+        for (int c = 0; c < characterFrequency.length(); c++) {
+            long frequency = characterFrequency.get(c);
+            if (frequency > 0) {
+                characters.put(StringAnalysis.characterString((char) c), frequency);
+            }
+        }
+
+        return new StringStatisticsResponse(
+                count,
+                palindromeCount,
+                count == 0 ? 0.0 : (double) palindromeCount / count,
+                count == 0 ? 0.0 : (double) totalLength.sum() / count,
+                count == 0 ? 0.0 : (double) totalWords.sum() / count,
+                histogram(lengthBuckets),
+                histogram(wordCountBuckets),
+                histogram(uniqueCharacterBuckets),
+                characters,
+                loaded);
+    }
+
+    /**
+     * Sketch-based answers in constant time: distinct words, the {@code top} most frequent words and, when
+     * {@code word} is given, that word's frequency. Frequencies may overcount, never undercount.
+     */
+    public ApproximateStatisticsResponse approximateSnapshot(int top, String word) {
+        List<String> candidates = new ArrayList<>();
+        for (CandidateStripe stripe : candidateStripes) {
+            stripe.collect(candidates);
+        }
+        List<ApproximateStatisticsResponse.WordFrequency> topWords = candidates.stream()
+                .map(candidate -> new ApproximateStatisticsResponse.WordFrequency(candidate,
+                        wordFrequency.estimate(StringAnalyzerUtil.hash64(candidate))))
+                .filter(frequency -> frequency.getEstimatedCount() > 0)
+                .sorted(Comparator.comparing(ApproximateStatisticsResponse.WordFrequency::getEstimatedCount).reversed()
+                        .thenComparing(ApproximateStatisticsResponse.WordFrequency::getWord))
+                .limit(top)
+                .toList();
+
+        int distinctCharacters = 0;
+        for (int c = 0; c < characterFrequency.length(); c++) {
+            if (characterFrequency.get(c) > 0) {
+                distinctCharacters++;
+            }
+        }
+
+        return new ApproximateStatisticsResponse(
+                distinctWords.estimate(),
+                distinctWords.relativeStandardError(),
+                topWords,
+                word != null ? wordFrequency.estimate(StringAnalyzerUtil.hash64(word)) : null,
+                (long) Math.ceil(wordFrequency.relativeError() * sketchedWords.sum()),
+                wordFrequency.confidence(),
+                distinctCharacters,
+                loaded);
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<StringStatisticsAttributes> rows = repository.streamStatisticsAttributes()) {
+                rows.forEach(row -> {
+                    boolean counted = false;
+                    loadLock.lock();
+                    try {
+                        if (!changedDuringLoad.contains(row.getId())) {
+                            loadedIds.add(row.getId());
+                            apply(row.getLength(), row.getIsPalindrome(), row.getWordCount(),
+                                    row.getUniqueCharacters(), row.getCharacterFrequency(), 1);
+                            counted = true;
+                        }
+                    } finally {
+                        loadLock.unlock();
+                    }
+                    // The loader is already off the request path, so it tokenizes inline
+                    if (counted && row.getValue() != null) {
+                        applyWords(row.getValue(), 1);
+                    }
+                });
+            }
+        });
+
+        loadLock.lock();
+        try {
+            loaded = true;
+            loadedIds.clear();
+            changedDuringLoad.clear();
+        } finally {
+            loadLock.unlock();
+        }
+        log.info("Corpus statistics loaded for {} strings in {} ms",
+                total.sum(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Returns true when the write was fully handled here. An add the loader already counted is dropped;
+     * otherwise it is applied and the id is claimed so the loader skips it. A delete is only applied if the row was already counted; otherwise the id is
+     * claimed so the loader never counts it.
+     */
+    private boolean applyDuringLoad(String id, boolean removal) {
+        loadLock.lock();
+        try {
+            if (loaded) {
+                return false;
+            }
+            if (!removal) {
+                if (loadedIds.contains(id)) {
+                    return true;
+                }
+                changedDuringLoad.add(id);
+                return false;
+            }
+            if (loadedIds.remove(id) || changedDuringLoad.contains(id)) {
+                return false;
+            }
+            changedDuringLoad.add(id);
+            return true;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void apply(Integer length, Boolean isPalindrome, Integer wordCount, Integer uniqueCharacters,
+                       byte[] frequencies, int sign) {
+        int lengthValue = length != null ? length : 0;
+        int words = wordCount != null ? wordCount : 0;
+
+        total.add(sign);
+        totalLength.add((long) sign * lengthValue);
+        totalWords.add((long) sign * words);
+        if (Boolean.TRUE.equals(isPalindrome)) {
+            palindromes.add(sign);
+        }
+        lengthBuckets[bucket(lengthValue)].add(sign);
+        wordCountBuckets[bucket(words)].add(sign);
+        uniqueCharacterBuckets[bucket(uniqueCharacters != null ? uniqueCharacters : 0)].add(sign);
+        if (frequencies != null) {
+            CharacterFrequencyCodec.forEach(frequencies,
+                    (character, frequency) -> characterFrequency.addAndGet(character, (long) sign * frequency));
+        }
+    }
+
+    private void sketchWords(String value, int sign) {
+        if (value != null) {
+            wordSketcher.execute(() -> applyWords(value, sign));
+        }
+    }
+
+    // Repeated words are folded first so each distinct word touches the sketches once
+    private void applyWords(String value, int sign) {
+        Map<String, Integer> counts = new HashMap<>();
+        StringAnalyzerUtil.forEachWord(value, word -> counts.merge(word, 1, Integer::sum));
+        counts.forEach((word, count) -> {
+            long hash = StringAnalyzerUtil.hash64(word);
+            wordFrequency.add(hash, (long) sign * count);
+            sketchedWords.add((long) sign * count);
+            if (sign > 0) {
+                distinctWords.add(hash);
+            }
+            candidateStripes[(int) (hash >>> 59)].offer(word, wordFrequency.estimate(hash));
+        });
+    }
+
+    // 0, 1, 2-3, 4-7, ...
+    private static int bucket(int value) {
+        return value <= 0 ? 0 : 32 - Integer.numberOfLeadingZeros(value);
+    }
+
+    private static Map<String, Long> histogram(LongAdder[] buckets) {
+        int last = buckets.length - 1;
+        while (last > 0 && buckets[last].sum() == 0) {
+            last--;
+        }
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int b = 0; b <= last; b++) {
+            long lower = b == 0 ? 0 : 1L << (b - 1);
+            long upper = b == 0 ? 0 : (1L << b) - 1;
+            histogram.put(lower == upper ? Long.toString(lower) : lower + "-" + upper, buckets[b].sum());
+        }
+        return histogram;
+    }
+
+    private static CandidateStripe[] newCandidateStripes() {
+        CandidateStripe[] stripes = new CandidateStripe[CANDIDATE_STRIPES];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new CandidateStripe();
+        }
+        return stripes;
+    }
+
+    private static LongAdder[] newBuckets() {
+        LongAdder[] buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+        return buckets;
+    }
+
+    // Keeps the words with the highest estimates seen in its share of the hash space
+    private static final class CandidateStripe {
+
+        private final String[] words = new String[CANDIDATES_PER_STRIPE];
+        private final long[] estimates = new long[CANDIDATES_PER_STRIPE];
+        private int size;
+
+        synchronized void offer(String word, long estimate) {
+            int smallest = 0;
+            for (int i = 0; i < size; i++) {
+                if (words[i].equals(word)) {
+                    estimates[i] = estimate;
+                    return;
+                }
+                if (estimates[i] < estimates[smallest]) {
+                    smallest = i;
+                }
+            }
+            if (size < CANDIDATES_PER_STRIPE) {
+                words[size] = word;
+                estimates[size++] = estimate;
+            } else if (estimate > estimates[smallest]) {
+                words[smallest] = word;
+                estimates[smallest] = estimate;
+            }
+        }
+
+        synchronized void collect(List<String> into) {
+            for (int i = 0; i < size; i++) {
+                into.add(words[i]);
+            }
+        }
+    }
+}
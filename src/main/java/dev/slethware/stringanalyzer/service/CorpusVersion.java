@@ -0,0 +1,36 @@
+package dev.slethware.stringanalyzer.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the stored corpus, bumped after every committed insert and delete. List responses
+ * are tagged with the version read before their query runs, so a write that lands mid-query only makes the
+ * tag stale, never wrong. The per-process prefix keeps tags handed out before a restart from matching the
+ * restarted counter. Single-row responses combine the row's id with the same version.
+ */
+@Component
+public class CorpusVersion {
+
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong version = new AtomicLong();
+
+    public void increment() {
+        version.incrementAndGet();
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    public String etag() {
+        return "\"" + instance + "-" + version.get() + "\"";
+    }
+
+    // Tag for a single row; any write invalidates it, which is coarser than needed but never serves a stale row
+    public String etag(String id) {
+        return "\"" + id + "-" + instance + "-" + version.get() + "\"";
+    }
+}
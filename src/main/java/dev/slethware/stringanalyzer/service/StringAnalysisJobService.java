@@ -0,0 +1,11 @@
+package dev.slethware.stringanalyzer.service;
+
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisJobResponse;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisRequest;
+
+public interface StringAnalysisJobService {
+
+    boolean shouldRunAsync(StringAnalysisRequest request);
+    StringAnalysisJobResponse submit(StringAnalysisRequest request);
+    StringAnalysisJobResponse getJob(String jobId);
+}
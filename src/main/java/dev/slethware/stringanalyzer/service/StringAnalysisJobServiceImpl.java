@@ -0,0 +1,177 @@
+package dev.slethware.stringanalyzer.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.slethware.stringanalyzer.exception.BadRequestException;
+import dev.slethware.stringanalyzer.exception.ConflictException;
+import dev.slethware.stringanalyzer.exception.ResourceNotFoundException;
+import dev.slethware.stringanalyzer.exception.ServiceUnavailableException;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisJobResponse;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisJobResponse.JobStatus;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisRequest;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisResponse;
+import dev.slethware.stringanalyzer.service.StringAnalysisMetrics.Stage;
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs analysis of large strings off the request thread. A submission is validated, hashed and checked
+ * for duplicates synchronously, then queued on a fixed worker pool with a bounded queue; when the queue
+ * is full the submission is rejected with 503 rather than buffering more payloads in memory. Jobs are
+ * keyed by the string's hash, so resubmitting a string that is still in flight returns the same job.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StringAnalysisJobServiceImpl implements StringAnalysisJobService {
+
+    private final StringAnalysisService analysisService;
+    private final StringAnalysisMetrics metrics;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.async.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.async.threshold:1048576}")
+    private int threshold;
+
+    @Value("${app.async.pool-size:2}")
+    private int poolSize;
+
+    @Value("${app.async.queue-capacity:8}")
+    private int queueCapacity;
+
+    @Value("${app.async.job-retention:1h}")
+    private Duration jobRetention;
+
+    private final Map<String, Job> activeJobs = new ConcurrentHashMap<>();
+    private Cache<String, StringAnalysisJobResponse> finishedJobs;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("string-analysis-"));
+        finishedJobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobRetention)
+                .build();
+
+        Gauge.builder("strings.jobs.queued", executor, e -> e.getQueue().size())
+                .description("Analysis jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("strings.jobs.running", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Analysis jobs currently running")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    @Override
+    public boolean shouldRunAsync(StringAnalysisRequest request) {
+        return enabled && request.getValue() != null && request.getValue().length() >= threshold;
+    }
+
+    @Override
+    public StringAnalysisJobResponse submit(StringAnalysisRequest request) {
+        String value = request.getValue();
+        if (value == null) {
+            throw new BadRequestException("Value field is required");
+        }
+        log.info("Accepting asynchronous analysis for string with length: {}", value.length());
+        metrics.recordPayloadLength(value.length());
+
+        String hash = metrics.time(Stage.ANALYZE_HASH, () -> StringAnalyzerUtil.calculateSha256Hash(value));
+        if (metrics.time(Stage.ANALYZE_DEDUP_CHECK, () -> analysisService.exists(hash))) {
+            log.warn("Asynchronous analysis rejected: Duplicate string detected with hash: {}", hash);
+            throw new ConflictException("String already exists in the system");
+        }
+
+        Job job = new Job(hash, value);
+        Job existing = activeJobs.putIfAbsent(hash, job);
+        if (existing != null) {
+            log.debug("String with hash {} is already being analyzed", hash);
+            return existing.toResponse();
+        }
+
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(hash, job);
+            log.warn("Asynchronous analysis rejected: queue is full ({} jobs)", queueCapacity);
+            throw new ServiceUnavailableException("Analysis queue is full, please retry shortly");
+        }
+        log.info("Queued analysis job: {}", hash);
+        return job.toResponse();
+    }
+
+    @Override
+    public StringAnalysisJobResponse getJob(String jobId) {
+        Job active = activeJobs.get(jobId);
+        if (active != null) {
+            return active.toResponse();
+        }
+        StringAnalysisJobResponse finished = finishedJobs.getIfPresent(jobId);
+        if (finished == null) {
+            throw new ResourceNotFoundException("Analysis job does not exist or has expired");
+        }
+        return finished;
+    }
+
+    private void run(Job job) {
+        job.status = JobStatus.RUNNING;
+        try {
+            StringAnalysisResponse result = analysisService.analyzeAndStore(job.value, job.id);
+            finish(job, JobStatus.COMPLETED, result, null);
+            log.info("Analysis job {} completed", job.id);
+        } catch (ConflictException e) {
+            finish(job, JobStatus.FAILED, null, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Analysis job {} failed", job.id, e);
+            finish(job, JobStatus.FAILED, null, "Analysis failed: " + e.getMessage());
+        }
+    }
+
+    // Published before the active entry is dropped so a concurrent poll always finds the job somewhere
+    private void finish(Job job, JobStatus status, StringAnalysisResponse result, String error) {
+        finishedJobs.put(job.id, new StringAnalysisJobResponse(job.id, status, job.submittedAt,
+                LocalDateTime.now(), result, error));
+        activeJobs.remove(job.id, job);
+    }
+
+    private static final class Job {
+
+        private final String id;
+        private final String value;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile JobStatus status = JobStatus.PENDING;
+
+        private Job(String id, String value) {
+            this.id = id;
+            this.value = value;
+        }
+
+        private StringAnalysisJobResponse toResponse() {
+            return new StringAnalysisJobResponse(id, status, submittedAt, null, null, null);
+        }
+    }
+}
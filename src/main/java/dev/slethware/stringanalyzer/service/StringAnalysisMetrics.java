@@ -0,0 +1,122 @@
+package dev.slethware.stringanalyzer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-stage timers and size distributions for the analyze, lookup and filter pipelines. Percentiles and
+ * histogram buckets are configured through management.metrics.distribution.* for the "strings" prefix.
+ */
+@Component
+public class StringAnalysisMetrics {
+
+    public enum Stage {
+        ANALYZE_HASH("analyze", "hash"),
+        ANALYZE_ANALYSIS("analyze", "analysis"),
+        ANALYZE_FREQUENCY_ENCODE("analyze", "frequency_encode"),
+        ANALYZE_MINHASH("analyze", "minhash"),
+        ANALYZE_DEDUP_CHECK("analyze", "dedup_check"),
+        ANALYZE_NEAR_DUPLICATE_CHECK("analyze", "near_duplicate_check"),
+        ANALYZE_PERSIST("analyze", "persist"),
+        BATCH_ANALYSIS("batch", "analysis"),
+        BATCH_DEDUP_CHECK("batch", "dedup_check"),
+        BATCH_PERSIST("batch", "persist"),
+        STREAM_ANALYSIS("stream", "analysis"),
+        STREAM_DEDUP_CHECK("stream", "dedup_check"),
+        STREAM_PALINDROME("stream", "palindrome"),
+        STREAM_PERSIST("stream", "persist"),
+        LOOKUP_HASH("lookup", "hash"),
+        LOOKUP_LOAD("lookup", "load"),
+        FILTER_INDEX_LOOKUP("filter", "index_lookup"),
+        FILTER_TRIGRAM_LOOKUP("filter", "trigram_lookup"),
+        FILTER_QUERY("filter", "query"),
+        FILTER_CHARACTER("filter", "character_filter"),
+        FILTER_MAPPING("filter", "mapping"),
+        COUNT_INDEX("count", "index"),
+        COUNT_QUERY("count", "query"),
+        SIMILAR_MINHASH("similar", "minhash"),
+        SIMILAR_LSH_LOOKUP("similar", "lsh_lookup"),
+        SIMILAR_SCORING("similar", "scoring"),
+        SIMILAR_LOAD("similar", "load");
+
+        private final String operation;
+        private final String stage;
+
+        Stage(String operation, String stage) {
+            this.operation = operation;
+            this.stage = stage;
+        }
+    }
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final DistributionSummary payloadLength;
+    private final DistributionSummary filterResults;
+    private final Counter filterRejected;
+    private final Counter dedupSkipped;
+    private final Counter dedupQueried;
+
+    public StringAnalysisMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("strings.stage")
+                    .description("Time spent in one stage of a string operation")
+                    .tag("operation", stage.operation)
+                    .tag("stage", stage.stage)
+                    .register(registry));
+        }
+        payloadLength = DistributionSummary.builder("strings.payload.length")
+                .description("Length in chars of submitted strings")
+                .baseUnit("chars")
+                .register(registry);
+        filterResults = DistributionSummary.builder("strings.filter.results")
+                .description("Rows returned per filter page")
+                .baseUnit("rows")
+                .register(registry);
+        filterRejected = Counter.builder("strings.filter.rejected")
+                .description("Candidate rows dropped by the in-memory character filter")
+                .baseUnit("rows")
+                .register(registry);
+        dedupSkipped = Counter.builder("strings.dedup.checks")
+                .description("Duplicate checks, by whether the id filter let the existence query be skipped")
+                .tag("result", "skipped")
+                .register(registry);
+        dedupQueried = Counter.builder("strings.dedup.checks")
+                .description("Duplicate checks, by whether the id filter let the existence query be skipped")
+                .tag("result", "queried")
+                .register(registry);
+    }
+
+    public <T> T time(Stage stage, Supplier<T> action) {
+        return timers.get(stage).record(action);
+    }
+
+    public void record(Stage stage, long nanos) {
+        timers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPayloadLength(int length) {
+        payloadLength.record(length);
+    }
+
+    public void recordFilterResults(int rows) {
+        filterResults.record(rows);
+    }
+
+    public void recordFilterRejected(long rows) {
+        if (rows > 0) {
+            filterRejected.increment(rows);
+        }
+    }
+
+    public void recordDedupCheck(long skipped, long queried) {
+        dedupSkipped.increment(skipped);
+        dedupQueried.increment(queried);
+    }
+}
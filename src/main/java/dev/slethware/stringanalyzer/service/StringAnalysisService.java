@@ -1,15 +1,35 @@
 package dev.slethware.stringanalyzer.service;
 
+import dev.slethware.stringanalyzer.models.dto.ApproximateStatisticsResponse;
 import dev.slethware.stringanalyzer.models.dto.NaturalLanguageFilterResponse;
+import dev.slethware.stringanalyzer.models.dto.SimilarStringsResponse;
 import dev.slethware.stringanalyzer.models.dto.StringAnalysisRequest;
 import dev.slethware.stringanalyzer.models.dto.StringAnalysisResponse;
+import dev.slethware.stringanalyzer.models.dto.StringBatchRequest;
+import dev.slethware.stringanalyzer.models.dto.StringBatchResponse;
+import dev.slethware.stringanalyzer.models.dto.StringCountResponse;
 import dev.slethware.stringanalyzer.models.dto.StringListResponse;
+import dev.slethware.stringanalyzer.models.dto.StringStatisticsResponse;
+import dev.slethware.stringanalyzer.utility.ResponseFields;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public interface StringAnalysisService {
 
     StringAnalysisResponse analyzeAndStore(StringAnalysisRequest request);
+    StringAnalysisResponse analyzeAndStore(String value, String hash);
+    StringBatchResponse analyzeAndStoreBatch(StringBatchRequest request);
     StringAnalysisResponse getByValue(String value);
-    StringListResponse getAllWithFilters(Boolean isPalindrome, Integer minLength, Integer maxLength, Integer wordCount, String containsCharacter);
-    NaturalLanguageFilterResponse filterByNaturalLanguage(String query);
+    boolean exists(String hash);
+    SimilarStringsResponse findSimilar(String value, Double minSimilarity, Integer limit);
+    void validatePage(Integer limit, String cursor);
+    void validateNaturalLanguageQuery(String query);
+    StringListResponse getAllWithFilters(Boolean isPalindrome, Integer minLength, Integer maxLength, Integer wordCount, String containsCharacter, String containsSubstring, Integer limit, String cursor, ResponseFields fields);
+    NaturalLanguageFilterResponse filterByNaturalLanguage(String query, Integer limit, String cursor, ResponseFields fields);
+    StringCountResponse countWithFilters(Boolean isPalindrome, Integer minLength, Integer maxLength, Integer wordCount, String containsCharacter, String containsSubstring);
+    StringCountResponse countByNaturalLanguage(String query);
+    StreamingResponseBody streamWithFilters(Boolean isPalindrome, Integer minLength, Integer maxLength, Integer wordCount, String containsCharacter, String containsSubstring, String cursor, ResponseFields fields);
+    StreamingResponseBody streamByNaturalLanguage(String query, String cursor, ResponseFields fields);
+    StringStatisticsResponse getStatistics();
+    ApproximateStatisticsResponse getApproximateStatistics(Integer top, String word);
     void deleteByValue(String value);
 }
\ No newline at end of file
@@ -1,32 +1,117 @@
 package dev.slethware.stringanalyzer.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import dev.slethware.stringanalyzer.config.AnalysisProperties;
 import dev.slethware.stringanalyzer.exception.ConflictException;
+import dev.slethware.stringanalyzer.models.dto.ApproximateStatisticsResponse;
 import dev.slethware.stringanalyzer.models.dto.NaturalLanguageFilterResponse;
+import dev.slethware.stringanalyzer.models.dto.SimilarStringsResponse;
 import dev.slethware.stringanalyzer.models.dto.StringAnalysisRequest;
 import dev.slethware.stringanalyzer.models.dto.StringAnalysisResponse;
+import dev.slethware.stringanalyzer.models.dto.StringBatchRequest;
+import dev.slethware.stringanalyzer.models.dto.StringBatchResponse;
+import dev.slethware.stringanalyzer.models.dto.StringCountResponse;
 import dev.slethware.stringanalyzer.models.dto.StringListResponse;
+import dev.slethware.stringanalyzer.models.dto.StringStatisticsResponse;
 import dev.slethware.stringanalyzer.models.entity.Strings;
 import dev.slethware.stringanalyzer.exception.BadRequestException;
 import dev.slethware.stringanalyzer.exception.ResourceNotFoundException;
+import dev.slethware.stringanalyzer.repository.IndexedId;
+import dev.slethware.stringanalyzer.repository.StringAttributeIndex;
+import dev.slethware.stringanalyzer.repository.StringContentRepository;
+import dev.slethware.stringanalyzer.repository.StringIdFilter;
+import dev.slethware.stringanalyzer.repository.StringSignature;
+import dev.slethware.stringanalyzer.repository.StringSimilarityIndex;
+import dev.slethware.stringanalyzer.repository.StringSummary;
+import dev.slethware.stringanalyzer.repository.StringTrigramIndex;
 import dev.slethware.stringanalyzer.repository.StringsRepository;
+import dev.slethware.stringanalyzer.service.StringAnalysisMetrics.Stage;
+import dev.slethware.stringanalyzer.utility.CharacterFrequencyCodec;
+import dev.slethware.stringanalyzer.utility.MinHashSignature;
 import dev.slethware.stringanalyzer.utility.NaturalLanguageQueryParser;
+import dev.slethware.stringanalyzer.utility.NaturalLanguageQueryPlan;
+import dev.slethware.stringanalyzer.utility.PageCursorUtil;
+import dev.slethware.stringanalyzer.utility.ResponseFields;
+import dev.slethware.stringanalyzer.utility.StringAnalysis;
+import dev.slethware.stringanalyzer.utility.StringAnalysisMapper;
 import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class StringAnalysisServiceImpl implements StringAnalysisService {
 
+    private static final int STREAM_FLUSH_INTERVAL = 100;
+    private static final int EXISTENCE_CHECK_CHUNK = 1000;
+    private static final int DEFAULT_TOP_WORDS = 10;
+    private static final int MAX_TOP_WORDS = 100;
+
     private final StringsRepository repository;
+    private final StringContentRepository contentRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final StringAttributeIndex attributeIndex;
+    private final StringTrigramIndex trigramIndex;
+    private final StringSimilarityIndex similarityIndex;
+    private final StringIdFilter idFilter;
+    private final CorpusStatistics corpusStatistics;
+    private final CorpusVersion corpusVersion;
+    private final Cache<String, StringAnalysisResponse> responseCache;
+    private final StringAnalysisMetrics metrics;
+    private final AnalysisProperties analysisProperties;
+
+    @Value("${app.pagination.default-limit:100}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-limit:1000}")
+    private int maxPageSize;
+
+    @Value("${app.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    @Value("${app.similarity.default-min-similarity:0.5}")
+    private double defaultMinSimilarity;
+
+    @Value("${app.similarity.reject-near-duplicates:false}")
+    private boolean rejectNearDuplicates;
+
+    @Value("${app.similarity.reject-threshold:0.9}")
+    private double rejectThreshold;
 
     @Override
     public StringAnalysisResponse analyzeAndStore(StringAnalysisRequest request) {
@@ -39,145 +124,880 @@ public class StringAnalysisServiceImpl implements StringAnalysisService {
 
         String value = request.getValue();
         log.debug("Analyzing string with length: {}", value.length());
+        metrics.recordPayloadLength(value.length());
 
-        if (repository.findByValue(value).isPresent()) {
+        String hash = metrics.time(Stage.ANALYZE_HASH, () -> StringAnalyzerUtil.calculateSha256Hash(value));
+        return analyzeAndStore(value, hash);
+    }
+
+    @Override
+    public StringAnalysisResponse analyzeAndStore(String value, String hash) {
+        // Only saves the analysis for known duplicates; the primary key decides on insert
+        if (metrics.time(Stage.ANALYZE_DEDUP_CHECK, () -> exists(hash))) {
             log.warn("String analysis failed: Duplicate string detected - '{}'", value);
             throw new ConflictException("String already exists in the system");
         }
 
-        Strings strings = new Strings();
-        strings.setValue(value);
-
         log.debug("Calculating string properties");
-        String hash = StringAnalyzerUtil.calculateSha256Hash(value);
-        strings.setId(hash);
-        strings.setLength(StringAnalyzerUtil.calculateLength(value));
-        strings.setIsPalindrome(StringAnalyzerUtil.isPalindrome(value));
-        strings.setUniqueCharacters(StringAnalyzerUtil.countUniqueCharacters(value));
-        strings.setWordCount(StringAnalyzerUtil.countWords(value));
-        strings.setCharacterFrequencyMap(StringAnalyzerUtil.calculateCharacterFrequency(value));
+        Strings strings = buildEntity(value, hash);
+        if (rejectNearDuplicates) {
+            rejectNearDuplicate(strings);
+        }
 
         log.debug("Saving string entity with hash: {}", hash);
-        Strings saved = repository.save(strings);
+        Strings saved = metrics.time(Stage.ANALYZE_PERSIST, () -> insert(strings));
+        idFilter.add(hash);
+        attributeIndex.add(saved);
+        trigramIndex.add(saved);
+        similarityIndex.add(saved);
+        corpusStatistics.add(saved);
+        corpusVersion.increment();
         log.info("Successfully analyzed and stored string with hash: {}, isPalindrome: {}, wordCount: {}",
                 hash, saved.getIsPalindrome(), saved.getWordCount());
-        return mapToResponse(saved);
+        return StringAnalysisMapper.toResponse(saved);
+    }
+
+    @Override
+    public StringBatchResponse analyzeAndStoreBatch(StringBatchRequest request) {
+        List<String> values = request.getValues();
+        if (values == null) {
+            throw new BadRequestException("Values field is required");
+        }
+        if (values.size() > maxBatchSize) {
+            throw new BadRequestException("Batch size " + values.size() + " exceeds the maximum of " + maxBatchSize);
+        }
+        log.info("Starting batch analysis for {} strings", values.size());
+
+        // Hash and analyze in parallel; order is preserved so results line up with the request
+        List<Strings> analyzed = metrics.time(Stage.BATCH_ANALYSIS, () -> IntStream.range(0, values.size())
+                .parallel()
+                .mapToObj(i -> values.get(i) == null ? null : buildBatchEntity(values.get(i)))
+                .toList());
+
+        Map<String, Integer> firstIndexById = new HashMap<>();
+        for (int i = 0; i < analyzed.size(); i++) {
+            if (analyzed.get(i) != null) {
+                firstIndexById.putIfAbsent(analyzed.get(i).getId(), i);
+            }
+        }
+
+        List<String> possiblyStored = firstIndexById.keySet().stream().filter(idFilter::mightContain).toList();
+        metrics.recordDedupCheck(firstIndexById.size() - possiblyStored.size(), possiblyStored.size());
+        Set<String> existingIds = metrics.time(Stage.BATCH_DEDUP_CHECK, () -> findExistingIds(possiblyStored));
+
+        List<StringBatchResponse.ItemResult> results = new ArrayList<>(analyzed.size());
+        List<Strings> toInsert = new ArrayList<>();
+        for (int i = 0; i < analyzed.size(); i++) {
+            Strings strings = analyzed.get(i);
+            if (strings == null) {
+                results.add(new StringBatchResponse.ItemResult(i, StringBatchResponse.ItemStatus.INVALID,
+                        "Value must be a non-null string", null));
+            } else if (existingIds.contains(strings.getId())) {
+                results.add(new StringBatchResponse.ItemResult(i, StringBatchResponse.ItemStatus.CONFLICT,
+                        "String already exists in the system", null));
+            } else if (firstIndexById.get(strings.getId()) != i) {
+                results.add(new StringBatchResponse.ItemResult(i, StringBatchResponse.ItemStatus.CONFLICT,
+                        "String is duplicated within the batch", null));
+            } else {
+                toInsert.add(strings);
+                results.add(null);
+            }
+        }
+
+        // Concurrent writers may store some of these ids first, and again between retries. Each failed attempt
+        // drops the ids now stored and reports them as conflicts, so the loop ends once an insert of the
+        // remainder commits; a violation that no stored id explains is not a race and is rethrown
+        List<Strings> saved;
+        while (true) {
+            try {
+                saved = metrics.time(Stage.BATCH_PERSIST,
+                        () -> transactionTemplate.execute(status -> repository.saveAll(toInsert)));
+                break;
+            } catch (DataIntegrityViolationException e) {
+                Set<String> taken = findExistingIds(toInsert.stream().map(Strings::getId).toList());
+                if (taken.isEmpty()) {
+                    throw e;
+                }
+                log.debug("Batch insert lost a race for {} ids, retrying without them", taken.size());
+                toInsert.removeIf(strings -> taken.contains(strings.getId()));
+                toInsert.forEach(Strings::markNew);
+                for (String id : taken) {
+                    int index = firstIndexById.get(id);
+                    results.set(index, new StringBatchResponse.ItemResult(index,
+                            StringBatchResponse.ItemStatus.CONFLICT, "String already exists in the system", null));
+                }
+            }
+        }
+        for (Strings strings : saved) {
+            idFilter.add(strings.getId());
+            attributeIndex.add(strings);
+            trigramIndex.add(strings);
+            similarityIndex.add(strings);
+            corpusStatistics.add(strings);
+            corpusVersion.increment();
+            int index = firstIndexById.get(strings.getId());
+            results.set(index, new StringBatchResponse.ItemResult(index, StringBatchResponse.ItemStatus.CREATED,
+                    null, StringAnalysisMapper.toResponse(strings)));
+        }
+
+        StringBatchResponse response = new StringBatchResponse(results);
+        log.info("Batch analysis complete - created: {}, conflicts: {}, invalid: {}",
+                response.getCreated(), response.getConflicts(), response.getInvalid());
+        return response;
     }
 
     @Override
     public StringAnalysisResponse getByValue(String value) {
         log.info("Retrieving string by value: '{}'", value);
-        Strings strings = repository.findByValue(value)
-                .orElseThrow(() -> {
-                    log.error("String not found: '{}'", value);
-                    return new ResourceNotFoundException("String does not exist in the system");
-                });
-        log.debug("Successfully retrieved string with hash: {}", strings.getId());
-        return mapToResponse(strings);
+        String hash = metrics.time(Stage.LOOKUP_HASH, () -> StringAnalyzerUtil.calculateSha256Hash(value));
+        // Loaded outside the cache: a loading get() runs the query inside a map bin lock, which pins
+        // the carrier thread when requests run on virtual threads
+        StringAnalysisResponse response = responseCache.getIfPresent(hash);
+        if (response == null) {
+            long version = corpusVersion.current();
+            response = metrics.time(Stage.LOOKUP_LOAD,
+                    () -> repository.findById(hash).map(StringAnalysisMapper::toResponse).orElse(null));
+            if (response == null) {
+                log.error("String not found: '{}'", value);
+                throw new ResourceNotFoundException("String does not exist in the system");
+            }
+            responseCache.put(hash, response);
+            // A delete bumps the version before invalidating, so if one committed while the row was loading
+            // either its invalidation comes after this put or the version has moved and the put is undone here
+            if (corpusVersion.current() != version) {
+                responseCache.invalidate(hash);
+            }
+        }
+        log.debug("Successfully retrieved string with hash: {}", hash);
+        return response;
     }
 
     @Override
-    public StringListResponse getAllWithFilters(Boolean isPalindrome, Integer minLength,
-                                                Integer maxLength, Integer wordCount,
-                                                String containsCharacter) {
-        log.info("Fetching strings with filters - isPalindrome: {}, minLength: {}, maxLength: {}, wordCount: {}, containsCharacter: {}",
-                isPalindrome, minLength, maxLength, wordCount, containsCharacter);
-
-        List<Strings> results = repository.findByFilters(isPalindrome, minLength, maxLength, wordCount);
-        log.debug("Repository query returned {} results", results.size());
+    public boolean exists(String hash) {
+        if (!idFilter.mightContain(hash)) {
+            metrics.recordDedupCheck(1, 0);
+            return false;
+        }
+        metrics.recordDedupCheck(0, 1);
+        return repository.existsById(hash);
+    }
 
-        if (containsCharacter != null && !containsCharacter.isEmpty()) {
-            int beforeFilter = results.size();
-            results = results.stream()
-                    .filter(strings -> strings.getValue().contains(containsCharacter))
-                    .toList();
-            log.debug("After character filter '{}': {} results (filtered out {})",
-                    containsCharacter, results.size(), beforeFilter - results.size());
+    @Override
+    public SimilarStringsResponse findSimilar(String value, Double minSimilarity, Integer limit) {
+        log.info("Finding strings similar to: '{}'", value);
+        double threshold = minSimilarity != null ? minSimilarity : defaultMinSimilarity;
+        if (threshold < 0 || threshold > 1) {
+            throw new BadRequestException("min_similarity must be between 0 and 1");
         }
+        int maxResults = resolvePageSize(limit);
 
-        List<StringAnalysisResponse> responseList = results.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        String hash = metrics.time(Stage.LOOKUP_HASH, () -> StringAnalyzerUtil.calculateSha256Hash(value));
+        int[] signature = metrics.time(Stage.SIMILAR_MINHASH, () -> MinHashSignature.of(value));
+        List<SimilarMatch> matches = findSimilarMatches(signature, hash, threshold, maxResults, true);
 
-        Map<String, Object> filtersApplied = new HashMap<>();
-        if (isPalindrome != null) filtersApplied.put("is_palindrome", isPalindrome);
-        if (minLength != null) filtersApplied.put("min_length", minLength);
-        if (maxLength != null) filtersApplied.put("max_length", maxLength);
-        if (wordCount != null) filtersApplied.put("word_count", wordCount);
-        if (containsCharacter != null && !containsCharacter.isEmpty()) {
-            filtersApplied.put("contains_character", containsCharacter);
+        Map<String, Strings> loaded = matches.isEmpty() ? Map.of() : metrics.time(Stage.SIMILAR_LOAD,
+                () -> repository.findAllById(matches.stream().map(SimilarMatch::id).toList()).stream()
+                        .collect(Collectors.toMap(Strings::getId, Function.identity())));
+        List<SimilarStringsResponse.Match> data = new ArrayList<>(matches.size());
+        for (SimilarMatch match : matches) {
+            Strings strings = loaded.get(match.id());
+            if (strings != null) {
+                data.add(new SimilarStringsResponse.Match(match.similarity(), StringAnalysisMapper.toResponse(strings)));
+            }
         }
+        log.info("Found {} strings with estimated similarity of at least {}", data.size(), threshold);
+        return new SimilarStringsResponse(data, threshold);
+    }
 
-        log.info("Successfully retrieved {} strings with applied filters: {}", responseList.size(), filtersApplied);
-        return new StringListResponse(responseList, filtersApplied);
+    // Lets a caller reject bad paging input before answering a conditional request with 304
+    @Override
+    public void validatePage(Integer limit, String cursor) {
+        resolvePageSize(limit);
+        PageCursorUtil.decode(cursor);
     }
 
     @Override
-    public NaturalLanguageFilterResponse filterByNaturalLanguage(String query) {
-        log.info("Processing natural language query: '{}'", query);
+    public void validateNaturalLanguageQuery(String query) {
+        NaturalLanguageQueryParser.compile(query);
+    }
 
-        Map<String, Object> parsedFilters = NaturalLanguageQueryParser.parseQuery(query);
-        log.debug("Parsed filters from natural language query: {}", parsedFilters);
+    @Override
+    public StringListResponse getAllWithFilters(Boolean isPalindrome, Integer minLength,
+                                                Integer maxLength, Integer wordCount,
+                                                String containsCharacter, String containsSubstring,
+                                                Integer limit, String cursor, ResponseFields fields) {
+        log.info("Fetching strings with filters - isPalindrome: {}, minLength: {}, maxLength: {}, wordCount: {}, containsCharacter: {}, containsSubstring: {}, limit: {}, fields: {}",
+                isPalindrome, minLength, maxLength, wordCount, containsCharacter, containsSubstring, limit, fields);
 
-        Boolean isPalindrome = (Boolean) parsedFilters.get("is_palindrome");
-        Integer minLength = (Integer) parsedFilters.get("min_length");
-        Integer maxLength = (Integer) parsedFilters.get("max_length");
-        Integer wordCount = (Integer) parsedFilters.get("word_count");
-        String containsCharacter = (String) parsedFilters.get("contains_character");
+        ResponsePage page = findPage(isPalindrome, minLength, maxLength, wordCount,
+                Needles.of(containsCharacter, containsSubstring), PageCursorUtil.decode(cursor),
+                resolvePageSize(limit), fields);
+        List<StringAnalysisResponse> responseList = page.data();
+        String nextCursor = page.nextCursor();
 
-        List<Strings> results = repository.findByFilters(isPalindrome, minLength, maxLength, wordCount);
-        log.debug("Repository query returned {} results", results.size());
+        Map<String, Object> filtersApplied = filtersApplied(isPalindrome, minLength, maxLength, wordCount,
+                containsCharacter, containsSubstring);
 
-        if (containsCharacter != null && !containsCharacter.isEmpty()) {
-            int beforeFilter = results.size();
-            results = results.stream()
-                    .filter(strings -> strings.getValue().contains(containsCharacter))
-                    .toList();
-            log.debug("After character filter '{}': {} results (filtered out {})",
-                    containsCharacter, results.size(), beforeFilter - results.size());
-        }
+        log.info("Successfully retrieved {} strings with applied filters: {}", responseList.size(), filtersApplied);
+        return new StringListResponse(responseList, filtersApplied, nextCursor);
+    }
+
+    @Override
+    public NaturalLanguageFilterResponse filterByNaturalLanguage(String query, Integer limit, String cursor,
+                                                                 ResponseFields fields) {
+        log.info("Processing natural language query: '{}'", query);
+
+        NaturalLanguageQueryPlan plan = NaturalLanguageQueryParser.compile(query);
+        log.debug("Parsed filters from natural language query: {}", plan);
 
-        List<StringAnalysisResponse> responseList = results.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        ResponsePage page = findPage(plan.isPalindrome(), plan.minLength(), plan.maxLength(), plan.wordCount(),
+                Needles.of(plan.containsCharacter(), plan.containsSubstring()), PageCursorUtil.decode(cursor),
+                resolvePageSize(limit), fields);
+        List<StringAnalysisResponse> responseList = page.data();
+        String nextCursor = page.nextCursor();
 
         NaturalLanguageFilterResponse.InterpretedQuery interpretedQuery =
-                new NaturalLanguageFilterResponse.InterpretedQuery(query, parsedFilters);
+                new NaturalLanguageFilterResponse.InterpretedQuery(query, plan.toMap());
 
         log.info("Natural language query processed successfully. Found {} results for query: '{}'",
                 responseList.size(), query);
-        return new NaturalLanguageFilterResponse(responseList, responseList.size(), interpretedQuery);
+        return new NaturalLanguageFilterResponse(responseList, responseList.size(), interpretedQuery, nextCursor);
+    }
+
+    @Override
+    public StringCountResponse countWithFilters(Boolean isPalindrome, Integer minLength, Integer maxLength,
+                                                Integer wordCount, String containsCharacter,
+                                                String containsSubstring) {
+        log.info("Counting strings with filters - isPalindrome: {}, minLength: {}, maxLength: {}, wordCount: {}, containsCharacter: {}, containsSubstring: {}",
+                isPalindrome, minLength, maxLength, wordCount, containsCharacter, containsSubstring);
+
+        StringCountResponse response = count(isPalindrome, minLength, maxLength, wordCount,
+                Needles.of(containsCharacter, containsSubstring),
+                filtersApplied(isPalindrome, minLength, maxLength, wordCount, containsCharacter, containsSubstring));
+        log.info("Counted {} strings from {}", response.getCount(), response.getSource());
+        return response;
+    }
+
+    @Override
+    public StringCountResponse countByNaturalLanguage(String query) {
+        log.info("Counting strings for natural language query: '{}'", query);
+
+        NaturalLanguageQueryPlan plan = NaturalLanguageQueryParser.compile(query);
+        log.debug("Parsed filters from natural language query: {}", plan);
+
+        StringCountResponse response = count(plan.isPalindrome(), plan.minLength(), plan.maxLength(),
+                plan.wordCount(), Needles.of(plan.containsCharacter(), plan.containsSubstring()), plan.toMap());
+        log.info("Counted {} strings from {} for query: '{}'", response.getCount(), response.getSource(), query);
+        return response;
+    }
+
+    @Override
+    public StreamingResponseBody streamWithFilters(Boolean isPalindrome, Integer minLength,
+                                                   Integer maxLength, Integer wordCount,
+                                                   String containsCharacter, String containsSubstring,
+                                                   String cursor, ResponseFields fields) {
+        log.info("Streaming strings with filters - isPalindrome: {}, minLength: {}, maxLength: {}, wordCount: {}, containsCharacter: {}, containsSubstring: {}",
+                isPalindrome, minLength, maxLength, wordCount, containsCharacter, containsSubstring);
+
+        Needles needles = Needles.of(containsCharacter, containsSubstring);
+        PageCursorUtil.PageCursor after = PageCursorUtil.decode(cursor);
+        return out -> streamByFilters(isPalindrome, minLength, maxLength, wordCount, needles, after, fields, out);
+    }
+
+    @Override
+    public StreamingResponseBody streamByNaturalLanguage(String query, String cursor, ResponseFields fields) {
+        log.info("Streaming natural language query: '{}'", query);
+
+        NaturalLanguageQueryPlan plan = NaturalLanguageQueryParser.compile(query);
+        log.debug("Parsed filters from natural language query: {}", plan);
+
+        PageCursorUtil.PageCursor after = PageCursorUtil.decode(cursor);
+        Needles needles = Needles.of(plan.containsCharacter(), plan.containsSubstring());
+        return out -> streamByFilters(plan.isPalindrome(), plan.minLength(), plan.maxLength(),
+                plan.wordCount(), needles, after, fields, out);
+    }
+
+    @Override
+    public StringStatisticsResponse getStatistics() {
+        return corpusStatistics.snapshot();
+    }
+
+    @Override
+    public ApproximateStatisticsResponse getApproximateStatistics(Integer top, String word) {
+        int topWords = top != null ? top : DEFAULT_TOP_WORDS;
+        if (topWords < 1 || topWords > MAX_TOP_WORDS) {
+            throw new BadRequestException("top must be between 1 and " + MAX_TOP_WORDS);
+        }
+        return corpusStatistics.approximateSnapshot(topWords, word);
     }
 
     @Override
     @Transactional
     public void deleteByValue(String value) {
         log.info("Attempting to delete string by value: '{}'", value);
-        Strings strings = repository.findByValue(value)
+        Strings strings = repository.findById(StringAnalyzerUtil.calculateSha256Hash(value))
                 .orElseThrow(() -> {
                     log.error("Delete failed: String not found - '{}'", value);
                     return new ResourceNotFoundException("String does not exist in the system");
                 });
         log.debug("Deleting string with hash: {}", strings.getId());
         repository.delete(strings);
+        if (strings.getValue() == null) {
+            contentRepository.deleteContent(strings.getId());
+        }
+        runAfterCommit(() -> {
+            idFilter.remove(strings.getId());
+            attributeIndex.remove(strings.getId());
+            trigramIndex.remove(strings);
+            similarityIndex.remove(strings);
+            corpusStatistics.remove(strings);
+            corpusVersion.increment();
+            responseCache.invalidate(strings.getId());
+        });
         log.info("Successfully deleted string with value: '{}' and hash: {}", value, strings.getId());
     }
 
-    private StringAnalysisResponse mapToResponse(Strings entity) {
-        StringAnalysisResponse response = new StringAnalysisResponse();
-        response.setId(entity.getId());
-        response.setValue(entity.getValue());
-        response.setCreatedAt(entity.getCreatedAt());
+    private ResponsePage findPage(Boolean isPalindrome, Integer minLength, Integer maxLength, Integer wordCount,
+                                  Needles needles, PageCursorUtil.PageCursor after, int pageSize,
+                                  ResponseFields fields) {
+        if (!fields.isAll()) {
+            List<StringSummary> summaries = findSummariesByFilters(isPalindrome, minLength, maxLength, wordCount,
+                    needles, after, pageSize);
+            log.debug("Projection query returned {} results", summaries.size());
+            String nextCursor = null;
+            if (summaries.size() > pageSize) {
+                StringSummary last = summaries.get(pageSize - 1);
+                nextCursor = PageCursorUtil.encode(last.getCreatedAt(), last.getId());
+                summaries = summaries.subList(0, pageSize);
+            }
+            return new ResponsePage(mapSummaries(summaries, fields), nextCursor);
+        }
 
-        StringAnalysisResponse.StringPropertiesDto properties = new StringAnalysisResponse.StringPropertiesDto();
-        properties.setLength(entity.getLength());
-        properties.setIsPalindrome(entity.getIsPalindrome());
-        properties.setUniqueCharacters(entity.getUniqueCharacters());
-        properties.setWordCount(entity.getWordCount());
-        properties.setSha256Hash(entity.getId());
-        properties.setCharacterFrequencyMap(entity.getCharacterFrequencyMap());
+        List<Strings> results = findByFilters(isPalindrome, minLength, maxLength, wordCount, needles, after,
+                pageSize);
+        log.debug("Repository query returned {} results", results.size());
+        String nextCursor = nextCursor(results, pageSize);
+        if (nextCursor != null) {
+            results = results.subList(0, pageSize);
+        }
+        return new ResponsePage(mapPage(results), nextCursor);
+    }
 
-        response.setProperties(properties);
-        return response;
+    // Sparse counterpart of findByFilters: reads scalar columns only, and the substring test runs in the database
+    private List<StringSummary> findSummariesByFilters(Boolean isPalindrome, Integer minLength, Integer maxLength,
+                                                       Integer wordCount, Needles needles,
+                                                       PageCursorUtil.PageCursor after, int pageSize) {
+        LocalDateTime afterCreatedAt = after != null ? after.createdAt() : null;
+        String afterId = after != null ? after.id() : null;
+
+        Iterator<IndexedId> candidates = findCandidateIds(isPalindrome, minLength, maxLength, wordCount,
+                needles, afterCreatedAt, afterId, pageSize + 1);
+        if (candidates == null) {
+            return metrics.time(Stage.FILTER_QUERY, () -> repository.findSummariesByFilters(isPalindrome, minLength,
+                    maxLength, wordCount, needles.character(), needles.substring(), needles.characterSignature(),
+                    afterCreatedAt, afterId, PageRequest.of(0, pageSize + 1)));
+        }
+
+        List<StringSummary> page = new ArrayList<>(pageSize + 1);
+        long rejected = 0;
+        while (page.size() <= pageSize && candidates.hasNext()) {
+            List<String> chunk = nextChunk(candidates, pageSize + 1);
+            Set<String> matching = !needles.isEmpty()
+                    ? new HashSet<>(metrics.time(Stage.FILTER_CHARACTER,
+                            () -> repository.findIdsContaining(chunk, needles.character(), needles.substring())))
+                    : null;
+            Collection<String> ids = matching != null ? matching : chunk;
+            Map<String, StringSummary> loaded = ids.isEmpty() ? Map.of() : metrics.time(Stage.FILTER_QUERY,
+                    () -> repository.findSummariesByIds(ids).stream()
+                            .collect(Collectors.toMap(StringSummary::getId, Function.identity())));
+            for (String id : chunk) {
+                StringSummary summary = loaded.get(id);
+                if (summary != null && matchesAttributes(summary.getLength(), summary.getIsPalindrome(),
+                        summary.getWordCount(), isPalindrome, minLength, maxLength, wordCount)) {
+                    page.add(summary);
+                    if (page.size() > pageSize) {
+                        break;
+                    }
+                } else {
+                    rejected++;
+                }
+            }
+        }
+        metrics.recordFilterRejected(rejected);
+        return page;
     }
-}
\ No newline at end of file
+
+    // Value and histogram are each fetched for the whole page in one query, and only when requested
+    private List<StringAnalysisResponse> mapSummaries(List<StringSummary> summaries, ResponseFields fields) {
+        metrics.recordFilterResults(summaries.size());
+        List<String> ids = summaries.stream().map(StringSummary::getId).toList();
+        boolean valueRequested = fields.includes(ResponseFields.VALUE);
+        Map<String, String> values = new HashMap<>();
+        Map<String, byte[]> frequencies = new HashMap<>();
+        if (!ids.isEmpty() && valueRequested) {
+            metrics.time(Stage.FILTER_QUERY, () -> repository.findValuesByIds(ids))
+                    .forEach(payload -> values.put(payload.getId(), payload.getValue()));
+        }
+        if (!ids.isEmpty() && fields.includes(ResponseFields.CHARACTER_FREQUENCY_MAP)) {
+            metrics.time(Stage.FILTER_QUERY, () -> repository.findCharacterFrequenciesByIds(ids))
+                    .forEach(payload -> frequencies.put(payload.getId(), payload.getCharacterFrequency()));
+        }
+        return metrics.time(Stage.FILTER_MAPPING, () -> summaries.stream()
+                .map(summary -> StringAnalysisMapper.toResponse(summary, valueRequested, values.get(summary.getId()),
+                        frequencies.get(summary.getId())))
+                .collect(Collectors.toList()));
+    }
+
+    // Fetches one row beyond the page so the caller can tell whether another page exists
+    private List<Strings> findByFilters(Boolean isPalindrome, Integer minLength, Integer maxLength,
+                                        Integer wordCount, Needles needles,
+                                        PageCursorUtil.PageCursor after, int pageSize) {
+        LocalDateTime afterCreatedAt = after != null ? after.createdAt() : null;
+        String afterId = after != null ? after.id() : null;
+
+        Iterator<IndexedId> candidates = findCandidateIds(isPalindrome, minLength, maxLength, wordCount,
+                needles, afterCreatedAt, afterId, pageSize + 1);
+        if (candidates != null) {
+            return loadCandidates(candidates, isPalindrome, minLength, maxLength, wordCount, needles, pageSize);
+        }
+
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        return metrics.time(Stage.FILTER_QUERY, () -> repository.findByFilters(isPalindrome, minLength,
+                maxLength, wordCount, needles.character(), needles.substring(), needles.characterSignature(),
+                afterCreatedAt, afterId, pageable));
+    }
+
+    /**
+     * Ids that may match, in (createdAt, id) order, from whichever in-memory indexes are ready: the attribute
+     * index for the scalar filters, the trigram index for the longer needle. Candidates are pulled from the
+     * indexes a batch at a time as the caller consumes them, and when both apply their ordered sequences are
+     * intersected as they are read. Null when neither index applies.
+     */
+    private Iterator<IndexedId> findCandidateIds(Boolean isPalindrome, Integer minLength, Integer maxLength,
+                                                 Integer wordCount, Needles needles,
+                                                 LocalDateTime afterCreatedAt, String afterId, int batchSize) {
+        String longest = needles.longest();
+        Iterator<IndexedId> substringCandidates = longest != null && trigramIndex.isReady()
+                && longest.length() >= StringTrigramIndex.GRAM_LENGTH
+                ? new CandidateIterator((createdAt, id, limit) -> metrics.time(Stage.FILTER_TRIGRAM_LOOKUP,
+                        () -> trigramIndex.findIds(longest, createdAt, id, limit)),
+                        afterCreatedAt, afterId, batchSize)
+                : null;
+        if (!attributeIndex.isReady()) {
+            return substringCandidates;
+        }
+
+        Long characterSignature = needles.characterSignature();
+        Iterator<IndexedId> attributeCandidates = new CandidateIterator((createdAt, id, limit) ->
+                metrics.time(Stage.FILTER_INDEX_LOOKUP, () -> attributeIndex.findIds(isPalindrome, minLength,
+                        maxLength, wordCount, characterSignature, createdAt, id, limit)),
+                afterCreatedAt, afterId, batchSize);
+        return substringCandidates != null
+                ? new IntersectionIterator(attributeCandidates, substringCandidates)
+                : attributeCandidates;
+    }
+
+    private static List<String> nextChunk(Iterator<IndexedId> candidates, int size) {
+        List<String> chunk = new ArrayList<>(size);
+        while (chunk.size() < size && candidates.hasNext()) {
+            chunk.add(candidates.next().id());
+        }
+        return chunk;
+    }
+
+    // Loads candidates a page at a time, re-checking the scalar filters; the substring test runs in the database
+    private List<Strings> loadCandidates(Iterator<IndexedId> candidates, Boolean isPalindrome, Integer minLength,
+                                         Integer maxLength, Integer wordCount, Needles needles,
+                                         int pageSize) {
+        List<Strings> page = new ArrayList<>(pageSize + 1);
+        long rejected = 0;
+        while (page.size() <= pageSize && candidates.hasNext()) {
+            List<String> chunk = nextChunk(candidates, pageSize + 1);
+            Collection<String> ids = !needles.isEmpty()
+                    ? metrics.time(Stage.FILTER_CHARACTER,
+                            () -> repository.findIdsContaining(chunk, needles.character(), needles.substring()))
+                    : chunk;
+            Map<String, Strings> loaded = ids.isEmpty() ? Map.of() : metrics.time(Stage.FILTER_QUERY,
+                    () -> repository.findAllById(ids).stream()
+                            .collect(Collectors.toMap(Strings::getId, Function.identity())));
+            for (String id : chunk) {
+                Strings strings = loaded.get(id);
+                if (strings != null && matchesAttributes(strings.getLength(), strings.getIsPalindrome(),
+                        strings.getWordCount(), isPalindrome, minLength, maxLength, wordCount)) {
+                    page.add(strings);
+                    if (page.size() > pageSize) {
+                        break;
+                    }
+                } else {
+                    rejected++;
+                }
+            }
+        }
+        metrics.recordFilterRejected(rejected);
+        return page;
+    }
+
+    /**
+     * Counts without loading rows, from the cheapest source that is exact: the corpus aggregates when at
+     * most is_palindrome is set, the attribute index for scalar filters, otherwise a COUNT query. Substring
+     * filters always go to the query, since index candidates would need verifying one by one.
+     */
+    private StringCountResponse count(Boolean isPalindrome, Integer minLength, Integer maxLength, Integer wordCount,
+                                      Needles needles, Map<String, Object> filtersApplied) {
+        boolean hasNeedle = !needles.isEmpty();
+        if (!hasNeedle && minLength == null && maxLength == null && wordCount == null) {
+            Long count = corpusStatistics.count(isPalindrome);
+            if (count != null) {
+                return new StringCountResponse(count, filtersApplied, "statistics");
+            }
+        }
+        if (!hasNeedle && attributeIndex.isReady()) {
+            long count = metrics.time(Stage.COUNT_INDEX,
+                    () -> attributeIndex.count(isPalindrome, minLength, maxLength, wordCount));
+            return new StringCountResponse(count, filtersApplied, "index");
+        }
+        long count = metrics.time(Stage.COUNT_QUERY, () -> repository.countByFilters(isPalindrome, minLength,
+                maxLength, wordCount, needles.character(), needles.substring(), needles.characterSignature()));
+        return new StringCountResponse(count, filtersApplied, "query");
+    }
+
+    private static Map<String, Object> filtersApplied(Boolean isPalindrome, Integer minLength, Integer maxLength,
+                                                      Integer wordCount, String containsCharacter,
+                                                      String containsSubstring) {
+        Map<String, Object> filtersApplied = new HashMap<>();
+        if (isPalindrome != null) filtersApplied.put("is_palindrome", isPalindrome);
+        if (minLength != null) filtersApplied.put("min_length", minLength);
+        if (maxLength != null) filtersApplied.put("max_length", maxLength);
+        if (wordCount != null) filtersApplied.put("word_count", wordCount);
+        if (containsCharacter != null && !containsCharacter.isEmpty()) {
+            filtersApplied.put("contains_character", containsCharacter);
+        }
+        if (containsSubstring != null && !containsSubstring.isEmpty()) {
+            filtersApplied.put("contains_substring", containsSubstring);
+        }
+        return filtersApplied;
+    }
+
+    // Trigram candidates have not been checked against the scalar filters yet
+    private static boolean matchesAttributes(Integer length, Boolean palindrome, Integer words, Boolean isPalindrome,
+                                             Integer minLength, Integer maxLength, Integer wordCount) {
+        return (isPalindrome == null || isPalindrome.equals(palindrome))
+                && (minLength == null || length >= minLength)
+                && (maxLength == null || length <= maxLength)
+                && (wordCount == null || wordCount.equals(words));
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Writes one JSON document per line, detaching each row once written so memory stays flat
+    private void streamByFilters(Boolean isPalindrome, Integer minLength, Integer maxLength,
+                                 Integer wordCount, Needles needles,
+                                 PageCursorUtil.PageCursor after, ResponseFields fields, OutputStream out) {
+        LocalDateTime afterCreatedAt = after != null ? after.createdAt() : null;
+        String afterId = after != null ? after.id() : null;
+
+        ObjectWriter writer = fields.writer(objectMapper);
+        transactionTemplate.executeWithoutResult(status -> {
+            int written = 0;
+            try (Stream<Strings> rows = repository.streamByFilters(isPalindrome, minLength, maxLength, wordCount,
+                    needles.character(), needles.substring(), needles.characterSignature(), afterCreatedAt, afterId)) {
+                Iterator<Strings> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    Strings entity = iterator.next();
+                    out.write(writer.writeValueAsBytes(StringAnalysisMapper.toResponse(entity)));
+                    out.write('\n');
+                    entityManager.detach(entity);
+                    if (++written % STREAM_FLUSH_INTERVAL == 1) {
+                        out.flush();
+                    }
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            log.info("Streamed {} strings", written);
+        });
+    }
+
+    // Only consults the LSH index; submissions are not held up by a corpus scan while it is building
+    private void rejectNearDuplicate(Strings strings) {
+        int[] signature = MinHashSignature.decode(strings.getMinHashSignature());
+        List<SimilarMatch> nearest = metrics.time(Stage.ANALYZE_NEAR_DUPLICATE_CHECK,
+                () -> findSimilarMatches(signature, strings.getId(), rejectThreshold, 1, false));
+        if (!nearest.isEmpty()) {
+            SimilarMatch match = nearest.get(0);
+            log.warn("String analysis failed: Near-duplicate of {} with estimated similarity {}",
+                    match.id(), match.similarity());
+            throw new ConflictException("String is a near-duplicate of " + match.id()
+                    + " (estimated similarity " + match.similarity() + ")");
+        }
+    }
+
+    /**
+     * Stored strings whose estimated similarity reaches the threshold, most similar first. Candidates come
+     * from the LSH buckets; while the index is building they come from a scan of all signatures, or there
+     * are none when scanning is not allowed.
+     */
+    private List<SimilarMatch> findSimilarMatches(int[] signature, String excludeId, double threshold,
+                                                  int maxResults, boolean allowScan) {
+        Set<String> candidates = metrics.time(Stage.SIMILAR_LSH_LOOKUP, () -> similarityIndex.findCandidates(signature));
+        List<SimilarMatch> matches = new ArrayList<>();
+        if (candidates != null) {
+            candidates.remove(excludeId);
+            List<String> ids = new ArrayList<>(candidates);
+            for (int from = 0; from < ids.size(); from += EXISTENCE_CHECK_CHUNK) {
+                List<String> chunk = ids.subList(from, Math.min(from + EXISTENCE_CHECK_CHUNK, ids.size()));
+                metrics.time(Stage.SIMILAR_SCORING, () -> repository.findSignaturesByIds(chunk))
+                        .forEach(row -> addIfSimilar(matches, row, signature, excludeId, threshold));
+            }
+        } else if (allowScan) {
+            long start = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<StringSignature> rows = repository.streamSignatures()) {
+                    rows.forEach(row -> addIfSimilar(matches, row, signature, excludeId, threshold));
+                }
+            });
+            metrics.record(Stage.SIMILAR_SCORING, System.nanoTime() - start);
+        }
+        matches.sort(Comparator.comparingDouble(SimilarMatch::similarity).reversed().thenComparing(SimilarMatch::id));
+        return matches.size() > maxResults ? matches.subList(0, maxResults) : matches;
+    }
+
+    private static void addIfSimilar(List<SimilarMatch> matches, StringSignature row, int[] signature,
+                                     String excludeId, double threshold) {
+        if (row.getMinHashSignature() == null || row.getId().equals(excludeId)) {
+            return;
+        }
+        double similarity = MinHashSignature.similarity(signature, MinHashSignature.decode(row.getMinHashSignature()));
+        if (similarity >= threshold) {
+            matches.add(new SimilarMatch(row.getId(), similarity));
+        }
+    }
+
+    private Set<String> findExistingIds(Collection<String> candidateIds) {
+        Set<String> existingIds = new HashSet<>();
+        List<String> ids = new ArrayList<>(candidateIds);
+        for (int from = 0; from < ids.size(); from += EXISTENCE_CHECK_CHUNK) {
+            existingIds.addAll(repository.findExistingIds(ids.subList(from, Math.min(from + EXISTENCE_CHECK_CHUNK, ids.size()))));
+        }
+        return existingIds;
+    }
+
+    private Strings insert(Strings strings) {
+        try {
+            return repository.save(strings);
+        } catch (DataIntegrityViolationException e) {
+            // Another submission of the same value committed between the check and the insert
+            log.warn("String analysis failed: Duplicate string inserted concurrently with hash: {}", strings.getId());
+            throw new ConflictException("String already exists in the system", e);
+        }
+    }
+
+    private Strings buildBatchEntity(String value) {
+        metrics.recordPayloadLength(value.length());
+        return buildEntity(value, StringAnalyzerUtil.calculateSha256Hash(value));
+    }
+
+    private List<StringAnalysisResponse> mapPage(List<Strings> results) {
+        metrics.recordFilterResults(results.size());
+        return metrics.time(Stage.FILTER_MAPPING, () -> results.stream()
+                .map(StringAnalysisMapper::toResponse)
+                .collect(Collectors.toList()));
+    }
+
+    private Strings buildEntity(String value, String hash) {
+        StringAnalysis analysis = metrics.time(Stage.ANALYZE_ANALYSIS, () -> StringAnalyzerUtil.analyze(value, analysisProperties.parallelThreshold()));
+
+        Strings strings = new Strings();
+        strings.setId(hash);
+        strings.setValue(value);
+        strings.setLength(analysis.getLength());
+        strings.setIsPalindrome(analysis.isPalindrome());
+        strings.setUniqueCharacters(analysis.getUniqueCharacters());
+        strings.setWordCount(analysis.getWordCount());
+        strings.setCharacterSignature(analysis.getCharacterSignature());
+        strings.setCharacterFrequency(metrics.time(Stage.ANALYZE_FREQUENCY_ENCODE, () -> CharacterFrequencyCodec.encode(analysis)));
+        strings.setMinHashSignature(metrics.time(Stage.ANALYZE_MINHASH,
+                () -> MinHashSignature.encode(MinHashSignature.of(value))));
+        return strings;
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("limit must be greater than 0");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    private String nextCursor(List<Strings> results, int pageSize) {
+        if (results.size() <= pageSize) {
+            return null;
+        }
+        Strings last = results.get(pageSize - 1);
+        return PageCursorUtil.encode(last.getCreatedAt(), last.getId());
+    }
+
+    @FunctionalInterface
+    private interface CandidateSource {
+        List<IndexedId> fetch(LocalDateTime afterCreatedAt, String afterId, int limit);
+    }
+
+    // Pulls ordered candidates from an index a batch at a time, resuming after the last one returned
+    private static final class CandidateIterator implements Iterator<IndexedId> {
+
+        private final CandidateSource source;
+        private final int batchSize;
+        private LocalDateTime afterCreatedAt;
+        private String afterId;
+        private List<IndexedId> batch = List.of();
+        private int index;
+        private boolean exhausted;
+
+        CandidateIterator(CandidateSource source, LocalDateTime afterCreatedAt, String afterId, int batchSize) {
+            this.source = source;
+            this.afterCreatedAt = afterCreatedAt;
+            this.afterId = afterId;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (index < batch.size()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            batch = source.fetch(afterCreatedAt, afterId, batchSize);
+            index = 0;
+            exhausted = batch.size() < batchSize;
+            if (batch.isEmpty()) {
+                return false;
+            }
+            IndexedId last = batch.get(batch.size() - 1);
+            afterCreatedAt = last.createdAt();
+            afterId = last.id();
+            return true;
+        }
+
+        @Override
+        public IndexedId next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.get(index++);
+        }
+    }
+
+    // Candidates present in both ordered sequences, advancing whichever side is behind
+    private static final class IntersectionIterator implements Iterator<IndexedId> {
+
+        private static final Comparator<IndexedId> ORDER =
+                Comparator.comparing(IndexedId::createdAt).thenComparing(IndexedId::id);
+
+        private final Iterator<IndexedId> left;
+        private final Iterator<IndexedId> right;
+        private IndexedId next;
+
+        IntersectionIterator(Iterator<IndexedId> left, Iterator<IndexedId> right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (!left.hasNext() || !right.hasNext()) {
+                return false;
+            }
+            IndexedId l = left.next();
+            IndexedId r = right.next();
+            while (true) {
+                int cmp = ORDER.compare(l, r);
+                if (cmp == 0) {
+                    next = l;
+                    return true;
+                }
+                if (cmp < 0) {
+                    if (!left.hasNext()) {
+                        return false;
+                    }
+                    l = left.next();
+                } else {
+                    if (!right.hasNext()) {
+                        return false;
+                    }
+                    r = right.next();
+                }
+            }
+        }
+
+        @Override
+        public IndexedId next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            IndexedId result = next;
+            next = null;
+            return result;
+        }
+    }
+
+    /**
+     * The contains_character and contains_substring filters, each its own substring test; empty needles are
+     * dropped. Index lookups narrow by the longer needle and every needle is verified.
+     */
+    private record Needles(String character, String substring) {
+
+        static Needles of(String containsCharacter, String containsSubstring) {
+            return new Needles(containsCharacter == null || containsCharacter.isEmpty() ? null : containsCharacter,
+                    containsSubstring == null || containsSubstring.isEmpty() ? null : containsSubstring);
+        }
+
+        boolean isEmpty() {
+            return character == null && substring == null;
+        }
+
+        String longest() {
+            if (character == null || substring == null) {
+                return character != null ? character : substring;
+            }
+            return substring.length() >= character.length() ? substring : character;
+        }
+
+        // Every char of both needles must be in a matching value
+        Long characterSignature() {
+            if (isEmpty()) {
+                return null;
+            }
+            long signature = 0;
+            if (character != null) {
+                signature |= StringAnalyzerUtil.characterSignature(character);
+            }
+            if (substring != null) {
+                signature |= StringAnalyzerUtil.characterSignature(substring);
+            }
+            return signature;
+        }
+    }
+
+    private record ResponsePage(List<StringAnalysisResponse> data, String nextCursor) {}
+
+    private record SimilarMatch(String id, double similarity) {}
+}
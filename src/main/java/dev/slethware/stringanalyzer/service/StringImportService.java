@@ -0,0 +1,10 @@
+package dev.slethware.stringanalyzer.service;
+
+import dev.slethware.stringanalyzer.models.dto.StringImportResult;
+
+import java.nio.file.Path;
+
+public interface StringImportService {
+
+    StringImportResult importFile(Path file);
+}
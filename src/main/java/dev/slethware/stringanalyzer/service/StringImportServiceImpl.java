@@ -0,0 +1,230 @@
+package dev.slethware.stringanalyzer.service;
+
+import dev.slethware.stringanalyzer.models.dto.StringBatchRequest;
+import dev.slethware.stringanalyzer.models.dto.StringBatchResponse;
+import dev.slethware.stringanalyzer.models.dto.StringImportResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports newline-delimited UTF-8 files through the batch ingestion path. The file is read through a
+ * fixed-size buffer and split on '\n' bytes, which never occur inside a multi-byte UTF-8 sequence, so
+ * each line can be decoded on its own and its byte offset is known exactly. After every persisted batch
+ * the offset and the number of lines before it are written to a sibling ".checkpoint" file, which a later
+ * run resumes from.
+ *
+ * <p>Lines that are not valid UTF-8 or are longer than the maximum line length are skipped and reported
+ * by line number in the result, rather than failing the import. An over-long line is read past without
+ * being buffered.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StringImportServiceImpl implements StringImportService {
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private static final int MAX_REPORTED_LINES = 1000;
+
+    private final StringAnalysisService analysisService;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.import.buffer-size:4194304}")
+    private int bufferSize;
+
+    @Value("${app.import.max-line-length:67108864}")
+    private int maxLineLength;
+
+    @Override
+    public StringImportResult importFile(Path file) {
+        Path checkpoint = file.resolveSibling(file.getFileName() + CHECKPOINT_SUFFIX);
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] resumeFrom = readCheckpoint(checkpoint);
+            long startOffset = resumeFrom[0];
+            if (startOffset > 0) {
+                log.info("Resuming import of {} from byte offset {}", file, startOffset);
+            } else {
+                log.info("Starting import of {} ({} bytes)", file, channel.size());
+            }
+            channel.position(startOffset);
+
+            Progress progress = new Progress(channel.size(), startOffset, resumeFrom[1]);
+            List<String> batch = new ArrayList<>(batchSize);
+            ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+            long bufferOffset = startOffset;
+            boolean endOfFile = false;
+            // Set while reading past the rest of an over-long line
+            boolean discarding = false;
+
+            while (!endOfFile) {
+                endOfFile = channel.read(buffer) < 0;
+                buffer.flip();
+
+                int lineStart = 0;
+                for (int i = 0; i < buffer.limit(); i++) {
+                    if (buffer.get(i) == '\n') {
+                        if (discarding) {
+                            discarding = false;
+                        } else {
+                            addLine(buffer, lineStart, i, decoder, batch, progress);
+                        }
+                        lineStart = i + 1;
+                        progress.offset = bufferOffset + lineStart;
+                        if (batch.size() >= batchSize) {
+                            flush(batch, progress, checkpoint);
+                        }
+                    }
+                }
+                if (endOfFile && lineStart < buffer.limit()) {
+                    if (!discarding) {
+                        addLine(buffer, lineStart, buffer.limit(), decoder, batch, progress);
+                    }
+                    lineStart = buffer.limit();
+                    progress.offset = bufferOffset + lineStart;
+                }
+
+                buffer.position(lineStart);
+                buffer.compact();
+                bufferOffset += lineStart;
+
+                if (!endOfFile && !buffer.hasRemaining()) {
+                    if (!discarding && buffer.capacity() < maxLineLength) {
+                        buffer = grow(buffer);
+                    } else {
+                        if (!discarding) {
+                            progress.lines++;
+                            progress.reject("Line exceeds the maximum length of " + maxLineLength + " bytes");
+                            discarding = true;
+                        }
+                        bufferOffset += buffer.position();
+                        buffer.clear();
+                    }
+                }
+            }
+
+            flush(batch, progress, checkpoint);
+            Files.deleteIfExists(checkpoint);
+
+            log.info("Import of {} complete - lines: {}, created: {}, conflicts: {}, invalid: {}, skipped: {}",
+                    file, progress.lines, progress.created, progress.conflicts, progress.invalid, progress.skipped);
+            return new StringImportResult(progress.lines, progress.created, progress.conflicts,
+                    progress.invalid, progress.skipped, progress.offset - startOffset, progress.rejectedLines);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to import " + file, e);
+        }
+    }
+
+    private void addLine(ByteBuffer buffer, int start, int end, CharsetDecoder decoder,
+                         List<String> batch, Progress progress) {
+        progress.lines++;
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        if (end == start) {
+            progress.skipped++;
+            return;
+        }
+        try {
+            batch.add(decoder.decode(buffer.slice(start, end - start)).toString());
+        } catch (CharacterCodingException e) {
+            progress.reject("Line is not valid UTF-8");
+        }
+    }
+
+    private void flush(List<String> batch, Progress progress, Path checkpoint) throws IOException {
+        if (!batch.isEmpty()) {
+            StringBatchRequest request = new StringBatchRequest();
+            request.setValues(batch);
+            StringBatchResponse response = analysisService.analyzeAndStoreBatch(request);
+            progress.created += response.getCreated();
+            progress.conflicts += response.getConflicts();
+            progress.invalid += response.getInvalid();
+            batch.clear();
+        }
+
+        writeCheckpoint(checkpoint, progress.offset, progress.linesBefore + progress.lines);
+        log.info("Import progress: {} lines, {}% of file - created: {}, conflicts: {}, invalid: {}",
+                progress.lines, progress.percentComplete(), progress.created, progress.conflicts, progress.invalid);
+    }
+
+    // Only a single line can be pending at this point, so doubling is bounded by the maximum line length
+    private ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer larger = ByteBuffer.allocate(Math.min(buffer.capacity() * 2, maxLineLength));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    // Byte offset and lines before it; checkpoints written before line numbers were tracked hold only the offset
+    private long[] readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return new long[]{0L, 0L};
+        }
+        String[] fields = Files.readString(checkpoint).trim().split(" ");
+        try {
+            return new long[]{Long.parseLong(fields[0]), fields.length > 1 ? Long.parseLong(fields[1]) : 0L};
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Corrupt import checkpoint " + checkpoint + ", delete it to restart", e);
+        }
+    }
+
+    private void writeCheckpoint(Path checkpoint, long offset, long lines) throws IOException {
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(temp, offset + " " + lines);
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static class Progress {
+        private final long size;
+        private final long linesBefore;
+        private long offset;
+        private long lines;
+        private long created;
+        private long conflicts;
+        private long invalid;
+        private long skipped;
+        private final List<StringImportResult.RejectedLine> rejectedLines = new ArrayList<>();
+
+        Progress(long size, long offset, long linesBefore) {
+            this.size = size;
+            this.offset = offset;
+            this.linesBefore = linesBefore;
+        }
+
+        // Rejects the line counted last, numbered from the start of the file
+        void reject(String reason) {
+            long line = linesBefore + lines;
+            log.warn("Skipping line {} in import: {}", line, reason);
+            invalid++;
+            if (rejectedLines.size() < MAX_REPORTED_LINES) {
+                rejectedLines.add(new StringImportResult.RejectedLine(line, reason));
+            }
+        }
+
+        long percentComplete() {
+            return size == 0 ? 100 : offset * 100 / size;
+        }
+    }
+}
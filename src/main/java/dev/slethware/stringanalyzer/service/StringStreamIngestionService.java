@@ -0,0 +1,10 @@
+package dev.slethware.stringanalyzer.service;
+
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisResponse;
+
+import java.io.InputStream;
+
+public interface StringStreamIngestionService {
+
+    StringAnalysisResponse analyzeAndStore(InputStream body);
+}
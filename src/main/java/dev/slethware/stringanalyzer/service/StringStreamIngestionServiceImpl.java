@@ -0,0 +1,231 @@
+package dev.slethware.stringanalyzer.service;
+
+import dev.slethware.stringanalyzer.exception.BadRequestException;
+import dev.slethware.stringanalyzer.exception.ConflictException;
+import dev.slethware.stringanalyzer.exception.PayloadTooLargeException;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisResponse;
+import dev.slethware.stringanalyzer.models.entity.Strings;
+import dev.slethware.stringanalyzer.repository.StringAttributeIndex;
+import dev.slethware.stringanalyzer.repository.StringIdFilter;
+import dev.slethware.stringanalyzer.repository.StringSimilarityIndex;
+import dev.slethware.stringanalyzer.repository.StringTrigramIndex;
+import dev.slethware.stringanalyzer.repository.StringsRepository;
+import dev.slethware.stringanalyzer.service.StringAnalysisMetrics.Stage;
+import dev.slethware.stringanalyzer.utility.CharacterFrequencyCodec;
+import dev.slethware.stringanalyzer.utility.MinHashSignature;
+import dev.slethware.stringanalyzer.utility.StreamingStringAnalyzer;
+import dev.slethware.stringanalyzer.utility.StringAnalysis;
+import dev.slethware.stringanalyzer.utility.StringAnalysisMapper;
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+/**
+ * Ingests a raw UTF-8 request body without ever holding it as a String. A first pass over the body feeds
+ * each chunk to the SHA-256 digest, a spool file and the incremental analyzer; the palindrome check is a
+ * second pass over the spooled bytes from both ends. The spool file is then streamed into string_contents,
+ * so heap use stays at a few buffers regardless of body size. Since the digest covers the exact UTF-8 bytes,
+ * a streamed value gets the same id it would get through POST /strings.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StringStreamIngestionServiceImpl implements StringStreamIngestionService {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final StringsRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StringAnalysisService analysisService;
+    private final StringAttributeIndex attributeIndex;
+    private final StringTrigramIndex trigramIndex;
+    private final StringSimilarityIndex similarityIndex;
+    private final StringIdFilter idFilter;
+    private final CorpusStatistics corpusStatistics;
+    private final CorpusVersion corpusVersion;
+    private final StringAnalysisMetrics metrics;
+
+    @Value("${app.stream.max-bytes:1073741824}")
+    private long maxBytes;
+
+    @Value("${app.stream.spool-directory:${java.io.tmpdir}}")
+    private Path spoolDirectory;
+
+    @Override
+    public StringAnalysisResponse analyzeAndStore(InputStream body) {
+        log.info("Starting streamed string analysis");
+        Path spool = createSpool();
+        try {
+            MessageDigest digest = StringAnalyzerUtil.newSha256Digest();
+            StreamingStringAnalyzer analyzer = new StreamingStringAnalyzer();
+            long bytes = metrics.time(Stage.STREAM_ANALYSIS, () -> spoolAndAnalyze(body, spool, digest, analyzer));
+            if (analyzer.getLength() > Integer.MAX_VALUE) {
+                throw new PayloadTooLargeException("Body exceeds the maximum of " + Integer.MAX_VALUE + " characters");
+            }
+            log.debug("Read {} bytes, {} chars from request body", bytes, analyzer.getLength());
+            metrics.recordPayloadLength((int) analyzer.getLength());
+
+            String hash = StringAnalyzerUtil.toHex(digest.digest());
+            if (metrics.time(Stage.STREAM_DEDUP_CHECK, () -> analysisService.exists(hash))) {
+                log.warn("Streamed string analysis failed: Duplicate string detected with hash: {}", hash);
+                throw new ConflictException("String already exists in the system");
+            }
+
+            boolean palindrome = metrics.time(Stage.STREAM_PALINDROME, () -> isPalindrome(spool, analyzer.getLength()));
+            StringAnalysis analysis = analyzer.finish(palindrome);
+            byte[] signature = MinHashSignature.encode(analyzer.minHashSignature());
+            Strings saved = metrics.time(Stage.STREAM_PERSIST, () -> persist(hash, analysis, signature, spool));
+            idFilter.add(hash);
+            attributeIndex.add(saved);
+            trigramIndex.add(saved);
+            similarityIndex.add(saved);
+            corpusStatistics.add(saved);
+            corpusVersion.increment();
+
+            log.info("Successfully analyzed and stored streamed string with hash: {}, length: {}, isPalindrome: {}",
+                    hash, analysis.getLength(), palindrome);
+            return StringAnalysisMapper.toResponse(saved);
+
+        } finally {
+            deleteSpool(spool);
+        }
+    }
+
+    private Path createSpool() {
+        try {
+            return Files.createTempFile(spoolDirectory, "string-upload-", ".txt");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create spool file", e);
+        }
+    }
+
+    // Returns the number of bytes read; rejects bodies that are too large or not strictly valid UTF-8
+    private long spoolAndAnalyze(InputStream body, Path spool, MessageDigest digest, StreamingStringAnalyzer analyzer) {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        byte[] chunk = new byte[CHUNK_SIZE];
+        ByteBuffer input = ByteBuffer.allocate(CHUNK_SIZE + 4);
+        CharBuffer output = CharBuffer.allocate(CHUNK_SIZE);
+        long total = 0;
+
+        try (FileChannel channel = FileChannel.open(spool, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = body.read(chunk)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new PayloadTooLargeException("Body exceeds the maximum of " + maxBytes + " bytes");
+                }
+                digest.update(chunk, 0, read);
+                ByteBuffer written = ByteBuffer.wrap(chunk, 0, read);
+                while (written.hasRemaining()) {
+                    channel.write(written);
+                }
+
+                // Trailing bytes of a split sequence stay in the input buffer for the next chunk
+                input.put(chunk, 0, read).flip();
+                decode(decoder, input, output, analyzer, false);
+                input.compact();
+            }
+            input.flip();
+            decode(decoder, input, output, analyzer, true);
+            if (decoder.flush(output).isError() || input.hasRemaining()) {
+                throw new BadRequestException("Body must be valid UTF-8");
+            }
+            output.flip();
+            analyzer.update(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return total;
+    }
+
+    private void decode(CharsetDecoder decoder, ByteBuffer input, CharBuffer output,
+                        StreamingStringAnalyzer analyzer, boolean endOfInput) {
+        while (true) {
+            CoderResult result = decoder.decode(input, output, endOfInput);
+            if (result.isError()) {
+                try {
+                    result.throwException();
+                } catch (CharacterCodingException e) {
+                    throw new BadRequestException("Body must be valid UTF-8");
+                }
+            }
+            output.flip();
+            analyzer.update(output);
+            output.clear();
+            if (result.isUnderflow()) {
+                return;
+            }
+        }
+    }
+
+    private boolean isPalindrome(Path spool, long length) {
+        try (FileChannel channel = FileChannel.open(spool, StandardOpenOption.READ)) {
+            return StreamingStringAnalyzer.isPalindrome(channel, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Strings persist(String hash, StringAnalysis analysis, byte[] signature, Path spool) {
+        Strings strings = new Strings();
+        strings.setId(hash);
+        strings.setLength(analysis.getLength());
+        strings.setIsPalindrome(analysis.isPalindrome());
+        strings.setUniqueCharacters(analysis.getUniqueCharacters());
+        strings.setWordCount(analysis.getWordCount());
+        strings.setCharacterSignature(analysis.getCharacterSignature());
+        strings.setCharacterFrequency(CharacterFrequencyCodec.encode(analysis));
+        strings.setMinHashSignature(signature);
+
+        try {
+            return transactionTemplate.execute(status -> {
+                Strings saved = repository.save(strings);
+                try (Reader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+                    jdbcTemplate.update("INSERT INTO string_contents (id, content) VALUES (?, ?)", ps -> {
+                        ps.setString(1, hash);
+                        ps.setCharacterStream(2, reader, analysis.getLength());
+                    });
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another upload of the same content committed first
+            throw new ConflictException("String already exists in the system", e);
+        }
+    }
+
+    private void deleteSpool(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            log.warn("Failed to delete spool file {}", spool, e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package dev.slethware.stringanalyzer.utility;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Packs a character histogram into a single byte array: the entry count, then for each entry
+ * (sorted by char value) the delta from the previous char and its frequency, all as unsigned varints.
+ */
+public class CharacterFrequencyCodec {
+
+    private CharacterFrequencyCodec() {}
+
+    public static byte[] encode(StringAnalysis analysis) {
+        return encode(analysis.getCharacters(), analysis.getFrequencies());
+    }
+
+    public static byte[] encode(char[] characters, int[] frequencies) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1 + characters.length * 3);
+        writeVarint(out, characters.length);
+        int previous = 0;
+        for (int i = 0; i < characters.length; i++) {
+            writeVarint(out, characters[i] - previous);
+            writeVarint(out, frequencies[i]);
+            previous = characters[i];
+        }
+        return out.toByteArray();
+    }
+
+    public static byte[] encode(Map<String, Integer> frequencyMap) {
+        char[] characters = new char[frequencyMap.size()];
+        int index = 0;
+        for (String key : frequencyMap.keySet()) {
+            if (key.length() != 1) {
+                throw new IllegalArgumentException("Frequency map keys must be single characters: '" + key + "'");
+            }
+            characters[index++] = key.charAt(0);
+        }
+        Arrays.sort(characters);
+
+        int[] frequencies = new int[characters.length];
+        for (int i = 0; i < characters.length; i++) {
+            frequencies[i] = frequencyMap.get(StringAnalysis.characterString(characters[i]));
+        }
+        return encode(characters, frequencies);
+    }
+
+    public static Map<String, Integer> decode(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        Map<String, Integer> frequencyMap = new HashMap<>((int) (entryCount(data) / 0.75f) + 1);
+        forEach(data, (character, frequency) -> frequencyMap.put(StringAnalysis.characterString(character), frequency));
+        return frequencyMap;
+    }
+
+    // Visits entries in char order without building a map
+    public static void forEach(byte[] data, FrequencyConsumer consumer) {
+        int[] position = {0};
+        int entries = readVarint(data, position);
+        int character = 0;
+        for (int i = 0; i < entries; i++) {
+            character += readVarint(data, position);
+            consumer.accept((char) character, readVarint(data, position));
+        }
+    }
+
+    private static int entryCount(byte[] data) {
+        return readVarint(data, new int[]{0});
+    }
+
+    @FunctionalInterface
+    public interface FrequencyConsumer {
+        void accept(char character, int frequency);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] data, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
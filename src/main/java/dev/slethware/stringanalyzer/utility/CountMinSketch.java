@@ -0,0 +1,56 @@
+package dev.slethware.stringanalyzer.utility;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch over 64-bit hashes, with one row of counters per hash function. Estimates never
+ * undercount while no item's true count goes negative, and overcount by at most {@code e / width} of the
+ * total weight with probability {@code 1 - e^-depth}. Counters are atomic, so weights may be added and
+ * subtracted concurrently.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray counters;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Count-min sketch needs depth >= 1 and a power-of-two width: "
+                    + depth + " x " + width);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new AtomicLongArray(depth * width);
+    }
+
+    public void add(long hash, long weight) {
+        for (int row = 0; row < depth; row++) {
+            counters.addAndGet(index(hash, row), weight);
+        }
+    }
+
+    public long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return Math.max(0, estimate);
+    }
+
+    // Fraction of the total weight an estimate may exceed the true count by
+    public double relativeError() {
+        return Math.E / width;
+    }
+
+    public double confidence() {
+        return 1 - Math.exp(-depth);
+    }
+
+    // Double hashing from the two halves of the hash
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * width + ((h1 + row * h2) & (width - 1));
+    }
+}
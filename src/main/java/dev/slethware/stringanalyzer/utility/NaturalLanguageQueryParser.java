@@ -1,47 +1,91 @@
 package dev.slethware.stringanalyzer.utility;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import dev.slethware.stringanalyzer.exception.BadRequestException;
 import dev.slethware.stringanalyzer.exception.UnprocessableEntityException;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+/**
+ * Compiles natural language queries into a {@link NaturalLanguageQueryPlan}. The query is split into word
+ * tokens once and a small grammar is matched in a single walk over them. Each rule keeps its first match,
+ * and conflicting rules are resolved afterwards with the same precedence the regex-based parser used.
+ * Quoted text ("containing 'abc'") is kept verbatim as a substring filter. Compiled plans are cached by
+ * normalized query text.
+ */
 public class NaturalLanguageQueryParser {
 
+    private static final int PLAN_CACHE_SIZE = 1024;
+
+    private static final Cache<String, NaturalLanguageQueryPlan> PLAN_CACHE = Caffeine.newBuilder()
+            .maximumSize(PLAN_CACHE_SIZE)
+            .build();
+
+    // Rule slots, in the order in which later rules override earlier ones
+    private static final int LONGER_THAN = 0;
+    private static final int SHORTER_THAN = 1;
+    private static final int AT_LEAST = 2;
+    private static final int AT_MOST = 3;
+    private static final int EXACTLY = 4;
+    private static final int MIN_LENGTH = 5;
+    private static final int MAX_LENGTH = 6;
+
+    private static final int CONTAINS_LETTER = 0;
+    private static final int WITH_LETTER = 1;
+    private static final int FIRST_VOWEL = 2;
+    private static final int SECOND_VOWEL = 3;
+    private static final int THIRD_VOWEL = 4;
+    private static final int FOURTH_VOWEL = 5;
+    private static final int LAST_VOWEL = 6;
+    private static final int VOWEL_LETTER = 7;
+
     private NaturalLanguageQueryParser() {}
 
     public static Map<String, Object> parseQuery(String query) {
+        return compile(query).toMap();
+    }
+
+    public static NaturalLanguageQueryPlan compile(String query) {
         if (query == null || query.trim().isEmpty()) {
             throw new BadRequestException("Query parameter cannot be empty");
         }
+        return PLAN_CACHE.get(normalize(query.trim()), NaturalLanguageQueryParser::compileNormalized);
+    }
 
-        String normalizedQuery = query.toLowerCase().trim();
-        Map<String, Object> filters = new HashMap<>();
+    // Lower-cases everything outside quoted substrings, which are matched case-sensitively
+    private static String normalize(String query) {
+        StringBuilder normalized = new StringBuilder(query.length());
+        int segmentStart = 0;
+        int i = 0;
+        while (i < query.length()) {
+            int close = Tokens.closingQuote(query, i);
+            if (close < 0) {
+                i++;
+                continue;
+            }
+            normalized.append(query.substring(segmentStart, i).toLowerCase()).append(query, i, close + 1);
+            i = close + 1;
+            segmentStart = i;
+        }
+        return normalized.append(query.substring(segmentStart).toLowerCase()).toString();
+    }
 
+    private static NaturalLanguageQueryPlan compileNormalized(String query) {
         try {
-            // Parse word count
-            parseWordCount(normalizedQuery, filters);
-
-            // Parse palindrome
-            parsePalindrome(normalizedQuery, filters);
-
-            // Parse length constraints
-            parseLength(normalizedQuery, filters);
-
-            // Parse character contains
-            parseContainsCharacter(normalizedQuery, filters);
+            NaturalLanguageQueryPlan plan = match(new Tokens(query));
 
             // Validate that we parsed at least one filter
-            if (filters.isEmpty()) {
+            if (plan.isEmpty()) {
                 throw new BadRequestException("Unable to parse natural language query into valid filters");
             }
 
             // Validate for conflicting filters
-            validateFilters(filters);
+            validate(plan);
 
-            return filters;
+            return plan;
 
         } catch (BadRequestException | UnprocessableEntityException e) {
             throw e;
@@ -50,175 +94,283 @@ public class NaturalLanguageQueryParser {
         }
     }
 
-    private static void parseWordCount(String query, Map<String, Object> filters) {
-        // Match patterns like "single word", "one word", "two words", "three words", etc.
-        Pattern singleWordPattern = Pattern.compile("\\b(single|one)\\s+word\\b");
-        Pattern multiWordPattern = Pattern.compile("\\b(two|three|four|five|six|seven|eight|nine|ten)\\s+words?\\b");
-        Pattern numericWordPattern = Pattern.compile("\\b(\\d+)\\s+words?\\b");
-
-        if (singleWordPattern.matcher(query).find()) {
-            filters.put("word_count", 1);
-        } else {
-            Matcher multiMatcher = multiWordPattern.matcher(query);
-            if (multiMatcher.find()) {
-                String number = multiMatcher.group(1);
-                filters.put("word_count", wordToNumber(number));
-            } else {
-                Matcher numericMatcher = numericWordPattern.matcher(query);
-                if (numericMatcher.find()) {
-                    filters.put("word_count", Integer.parseInt(numericMatcher.group(1)));
+    private static NaturalLanguageQueryPlan match(Tokens tokens) {
+        Integer singleWord = null;
+        Integer namedWords = null;
+        String numericWords = null;
+        boolean palindrome = false;
+        Integer[] lengths = new Integer[7];
+        String[] characters = new String[8];
+        String substring = null;
+
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.isQuoted(i)) {
+                continue;
+            }
+            String token = tokens.get(i);
+            switch (token) {
+                // "single word", "one word"
+                case "single", "one" -> {
+                    if (singleWord == null && tokens.follows(i + 1, "word")) {
+                        singleWord = 1;
+                    }
+                }
+                // "two words" ... "ten words"
+                case "two", "three", "four", "five", "six", "seven", "eight", "nine", "ten" -> {
+                    if (namedWords == null && tokens.followsWordsKeyword(i + 1)) {
+                        namedWords = wordToNumber(token);
+                    }
+                }
+                // "palindrome", "palindromic", "palindromes"
+                case "palindrome", "palindromic", "palindromes" -> palindrome = true;
+                // "longer than X", "shorter than X"
+                case "longer", "shorter" -> {
+                    int slot = token.equals("longer") ? LONGER_THAN : SHORTER_THAN;
+                    if (lengths[slot] == null && tokens.follows(i + 1, "than") && tokens.followsNumber(i + 2)) {
+                        int length = Integer.parseInt(tokens.get(i + 2));
+                        lengths[slot] = slot == LONGER_THAN ? length + 1 : length - 1;
+                    }
+                }
+                // "at least X characters", "at most X characters"
+                case "at" -> {
+                    int slot = tokens.follows(i + 1, "least") ? AT_LEAST
+                            : tokens.follows(i + 1, "most") ? AT_MOST : -1;
+                    if (slot >= 0 && lengths[slot] == null
+                            && tokens.followsNumber(i + 2) && tokens.followsCharactersKeyword(i + 3)) {
+                        lengths[slot] = Integer.parseInt(tokens.get(i + 2));
+                    }
+                }
+                // "exactly X characters"
+                case "exactly" -> {
+                    if (lengths[EXACTLY] == null && tokens.followsNumber(i + 1) && tokens.followsCharactersKeyword(i + 2)) {
+                        lengths[EXACTLY] = Integer.parseInt(tokens.get(i + 1));
+                    }
+                }
+                // "min length X", "maximum length X"
+                case "min", "minimum", "max", "maximum" -> {
+                    int slot = token.startsWith("min") ? MIN_LENGTH : MAX_LENGTH;
+                    if (lengths[slot] == null && tokens.follows(i + 1, "length") && tokens.followsNumber(i + 2)) {
+                        lengths[slot] = Integer.parseInt(tokens.get(i + 2));
+                    }
+                }
+                // "containing the letter x", "contains character y", "containing the substring 'abc'"
+                case "contain", "containing", "contains" -> {
+                    int next = tokens.follows(i + 1, "the") ? i + 2 : i + 1;
+                    if (characters[CONTAINS_LETTER] == null
+                            && (tokens.follows(next, "letter") || tokens.follows(next, "character"))
+                            && tokens.followsLetter(next + 1)) {
+                        characters[CONTAINS_LETTER] = tokens.get(next + 1);
+                    }
+                    int quoted = tokens.follows(next, "substring") || tokens.follows(next, "text") ? next + 1 : next;
+                    if (substring == null && tokens.followsQuoted(quoted)) {
+                        substring = tokens.get(quoted);
+                    }
+                }
+                // "with the letter z"
+                case "with" -> {
+                    int next = tokens.follows(i + 1, "the") ? i + 2 : i + 1;
+                    if (characters[WITH_LETTER] == null && tokens.follows(next, "letter") && tokens.followsLetter(next + 1)) {
+                        characters[WITH_LETTER] = tokens.get(next + 1);
+                    }
+                }
+                case "first", "1st" -> matchVowel(tokens, i, characters, FIRST_VOWEL, "a");
+                case "second", "2nd" -> matchVowel(tokens, i, characters, SECOND_VOWEL, "e");
+                case "third", "3rd" -> matchVowel(tokens, i, characters, THIRD_VOWEL, "i");
+                case "fourth", "4th" -> matchVowel(tokens, i, characters, FOURTH_VOWEL, "o");
+                case "last", "5th", "fifth" -> matchVowel(tokens, i, characters, LAST_VOWEL, "u");
+                // "vowel e"
+                case "vowel" -> {
+                    if (characters[VOWEL_LETTER] == null && tokens.followsLetter(i + 1)) {
+                        characters[VOWEL_LETTER] = tokens.get(i + 1);
+                    }
+                }
+                default -> {
+                    // "3 words"
+                    if (numericWords == null && Tokens.isNumber(token) && tokens.followsWordsKeyword(i + 1)) {
+                        numericWords = token;
+                    }
                 }
             }
         }
+
+        // Numeric counts are only parsed when no named count takes precedence
+        Integer wordCount = singleWord != null ? singleWord
+                : namedWords != null ? namedWords
+                : numericWords != null ? Integer.valueOf(Integer.parseInt(numericWords)) : null;
+        Integer minLength = last(lengths[LONGER_THAN], lengths[AT_LEAST], lengths[EXACTLY], lengths[MIN_LENGTH]);
+        Integer maxLength = last(lengths[SHORTER_THAN], lengths[AT_MOST], lengths[EXACTLY], lengths[MAX_LENGTH]);
+        String containsCharacter = last(characters);
+
+        return new NaturalLanguageQueryPlan(palindrome ? Boolean.TRUE : null, minLength, maxLength,
+                wordCount, containsCharacter, substring);
     }
 
-    private static void parsePalindrome(String query, Map<String, Object> filters) {
-        // Match patterns like "palindrome", "palindromic"
-        if (query.matches(".*\\bpalindrom(e|ic|es)\\b.*")) {
-            filters.put("is_palindrome", true);
+    private static void matchVowel(Tokens tokens, int index, String[] characters, int slot, String vowel) {
+        if (tokens.follows(index + 1, "vowel")) {
+            characters[slot] = vowel;
         }
     }
 
-    private static void parseLength(String query, Map<String, Object> filters) {
-        // Match patterns like "longer than X", "shorter than X", "at least X", "at most X"
-        Pattern longerThanPattern = Pattern.compile("\\blonger\\s+than\\s+(\\d+)\\b");
-        Pattern shorterThanPattern = Pattern.compile("\\bshorter\\s+than\\s+(\\d+)\\b");
-        Pattern atLeastPattern = Pattern.compile("\\bat\\s+least\\s+(\\d+)\\s+(characters?|chars?)\\b");
-        Pattern atMostPattern = Pattern.compile("\\bat\\s+most\\s+(\\d+)\\s+(characters?|chars?)\\b");
-        Pattern exactLengthPattern = Pattern.compile("\\bexactly\\s+(\\d+)\\s+(characters?|chars?)\\b");
-        Pattern minLengthPattern = Pattern.compile("\\bmin(imum)?\\s+length\\s+(\\d+)\\b");
-        Pattern maxLengthPattern = Pattern.compile("\\bmax(imum)?\\s+length\\s+(\\d+)\\b");
-
-        Matcher longerMatcher = longerThanPattern.matcher(query);
-        if (longerMatcher.find()) {
-            int length = Integer.parseInt(longerMatcher.group(1));
-            filters.put("min_length", length + 1);
+    @SafeVarargs
+    private static <T> T last(T... values) {
+        for (int i = values.length - 1; i >= 0; i--) {
+            if (values[i] != null) {
+                return values[i];
+            }
         }
+        return null;
+    }
 
-        Matcher shorterMatcher = shorterThanPattern.matcher(query);
-        if (shorterMatcher.find()) {
-            int length = Integer.parseInt(shorterMatcher.group(1));
-            filters.put("max_length", length - 1);
+    private static void validate(NaturalLanguageQueryPlan plan) {
+        // Check for conflicting length constraints
+        if (plan.minLength() != null && plan.maxLength() != null && plan.minLength() > plan.maxLength()) {
+            throw new UnprocessableEntityException(
+                    "Query parsed but resulted in conflicting filters: min_length (" +
+                            plan.minLength() + ") cannot be greater than max_length (" + plan.maxLength() + ")"
+            );
         }
 
-        Matcher atLeastMatcher = atLeastPattern.matcher(query);
-        if (atLeastMatcher.find()) {
-            filters.put("min_length", Integer.parseInt(atLeastMatcher.group(1)));
+        // Validate negative values
+        if (plan.minLength() != null && plan.minLength() < 0) {
+            throw new UnprocessableEntityException("Query parsed but resulted in invalid filter: min_length cannot be negative");
         }
-
-        Matcher atMostMatcher = atMostPattern.matcher(query);
-        if (atMostMatcher.find()) {
-            filters.put("max_length", Integer.parseInt(atMostMatcher.group(1)));
+        if (plan.maxLength() != null && plan.maxLength() < 0) {
+            throw new UnprocessableEntityException("Query parsed but resulted in invalid filter: max_length cannot be negative");
         }
-
-        Matcher exactMatcher = exactLengthPattern.matcher(query);
-        if (exactMatcher.find()) {
-            int length = Integer.parseInt(exactMatcher.group(1));
-            filters.put("min_length", length);
-            filters.put("max_length", length);
+        if (plan.wordCount() != null && plan.wordCount() < 0) {
+            throw new UnprocessableEntityException("Query parsed but resulted in invalid filter: word_count cannot be negative");
         }
+    }
 
-        Matcher minMatcher = minLengthPattern.matcher(query);
-        if (minMatcher.find()) {
-            filters.put("min_length", Integer.parseInt(minMatcher.group(2)));
-        }
+    private static int wordToNumber(String word) {
+        return switch (word.toLowerCase()) {
+            case "one" -> 1;
+            case "two" -> 2;
+            case "three" -> 3;
+            case "four" -> 4;
+            case "five" -> 5;
+            case "six" -> 6;
+            case "seven" -> 7;
+            case "eight" -> 8;
+            case "nine" -> 9;
+            case "ten" -> 10;
+            default -> throw new BadRequestException("Unable to parse word number: " + word);
+        };
+    }
 
-        Matcher maxMatcher = maxLengthPattern.matcher(query);
-        if (maxMatcher.find()) {
-            filters.put("max_length", Integer.parseInt(maxMatcher.group(2)));
+    /**
+     * Word tokens of a query. Two tokens only form a phrase when the text between them is pure whitespace,
+     * matching the {@code \s+} separators of the original patterns. Quoted text is a single token that
+     * never matches a keyword.
+     */
+    private static final class Tokens {
+
+        private final List<String> words = new ArrayList<>();
+        private final List<Boolean> whitespaceBefore = new ArrayList<>();
+        private final List<Boolean> quoted = new ArrayList<>();
+
+        Tokens(String query) {
+            int i = 0;
+            int previousEnd = -1;
+            while (i < query.length()) {
+                int close = closingQuote(query, i);
+                if (close >= 0) {
+                    words.add(query.substring(i + 1, close));
+                    whitespaceBefore.add(previousEnd >= 0 && isWhitespace(query, previousEnd, i));
+                    quoted.add(true);
+                    previousEnd = close + 1;
+                    i = close + 1;
+                    continue;
+                }
+                if (!isWordChar(query.charAt(i))) {
+                    i++;
+                    continue;
+                }
+                int start = i;
+                while (i < query.length() && isWordChar(query.charAt(i))) {
+                    i++;
+                }
+                words.add(query.substring(start, i));
+                whitespaceBefore.add(previousEnd >= 0 && isWhitespace(query, previousEnd, start));
+                quoted.add(false);
+                previousEnd = i;
+            }
         }
-    }
 
-    private static void parseContainsCharacter(String query, Map<String, Object> filters) {
-        // Match patterns like "containing letter x", "contains character y", "with the letter z"
-        Pattern letterPattern = Pattern.compile("\\bcontain(ing|s)?\\s+(the\\s+)?(letter|character)\\s+([a-z])\\b");
-        Pattern withLetterPattern = Pattern.compile("\\bwith\\s+(the\\s+)?letter\\s+([a-z])\\b");
-        Pattern firstVowelPattern = Pattern.compile("\\b(first|1st)\\s+vowel\\b");
-        Pattern secondVowelPattern = Pattern.compile("\\b(second|2nd)\\s+vowel\\b");  // ADD THIS
-        Pattern thirdVowelPattern = Pattern.compile("\\b(third|3rd)\\s+vowel\\b");    // ADD THIS
-        Pattern fourthVowelPattern = Pattern.compile("\\b(fourth|4th)\\s+vowel\\b");  // ADD THIS
-        Pattern lastVowelPattern = Pattern.compile("\\b(last|5th|fifth)\\s+vowel\\b");
-        Pattern vowelPattern = Pattern.compile("\\bvowel\\s+([a-z])\\b");
+        int size() {
+            return words.size();
+        }
 
-        Matcher letterMatcher = letterPattern.matcher(query);
-        if (letterMatcher.find()) {
-            filters.put("contains_character", letterMatcher.group(4));
+        String get(int index) {
+            return words.get(index);
         }
 
-        Matcher withLetterMatcher = withLetterPattern.matcher(query);
-        if (withLetterMatcher.find()) {
-            filters.put("contains_character", withLetterMatcher.group(2));
+        boolean isQuoted(int index) {
+            return quoted.get(index);
         }
 
-        Matcher firstVowelMatcher = firstVowelPattern.matcher(query);
-        if (firstVowelMatcher.find()) {
-            filters.put("contains_character", "a");
+        boolean follows(int index, String word) {
+            return index < words.size() && whitespaceBefore.get(index) && !quoted.get(index)
+                    && words.get(index).equals(word);
         }
 
-        Matcher secondVowelMatcher = secondVowelPattern.matcher(query);
-        if (secondVowelMatcher.find()) {
-            filters.put("contains_character", "e");
+        boolean followsNumber(int index) {
+            return index < words.size() && whitespaceBefore.get(index) && !quoted.get(index)
+                    && isNumber(words.get(index));
         }
 
-        Matcher thirdVowelMatcher = thirdVowelPattern.matcher(query);
-        if (thirdVowelMatcher.find()) {
-            filters.put("contains_character", "i");
+        boolean followsQuoted(int index) {
+            return index < words.size() && whitespaceBefore.get(index) && quoted.get(index);
         }
 
-        Matcher fourthVowelMatcher = fourthVowelPattern.matcher(query);
-        if (fourthVowelMatcher.find()) {
-            filters.put("contains_character", "o");
+        boolean followsLetter(int index) {
+            if (index >= words.size() || !whitespaceBefore.get(index) || quoted.get(index)) {
+                return false;
+            }
+            String word = words.get(index);
+            return word.length() == 1 && word.charAt(0) >= 'a' && word.charAt(0) <= 'z';
         }
 
-        Matcher lastVowelMatcher = lastVowelPattern.matcher(query);
-        if (lastVowelMatcher.find()) {
-            filters.put("contains_character", "u");
+        boolean followsWordsKeyword(int index) {
+            return follows(index, "word") || follows(index, "words");
         }
 
-        Matcher vowelMatcher = vowelPattern.matcher(query);
-        if (vowelMatcher.find()) {
-            filters.put("contains_character", vowelMatcher.group(1));
+        boolean followsCharactersKeyword(int index) {
+            return follows(index, "character") || follows(index, "characters")
+                    || follows(index, "char") || follows(index, "chars");
         }
-    }
 
-    private static void validateFilters(Map<String, Object> filters) {
-        // Check for conflicting length constraints
-        if (filters.containsKey("min_length") && filters.containsKey("max_length")) {
-            Integer minLength = (Integer) filters.get("min_length");
-            Integer maxLength = (Integer) filters.get("max_length");
-            if (minLength > maxLength) {
-                throw new UnprocessableEntityException(
-                        "Query parsed but resulted in conflicting filters: min_length (" +
-                                minLength + ") cannot be greater than max_length (" + maxLength + ")"
-                );
+        // Index of the quote closing one opened at {@code index}, or -1; quotes only open after whitespace
+        static int closingQuote(String query, int index) {
+            char quote = query.charAt(index);
+            if ((quote != '\'' && quote != '"') || (index > 0 && !isWhitespace(query, index - 1, index))) {
+                return -1;
             }
+            int close = query.indexOf(quote, index + 1);
+            return close > index + 1 ? close : -1;
         }
 
-        // Validate negative values
-        if (filters.containsKey("min_length") && (Integer) filters.get("min_length") < 0) {
-            throw new UnprocessableEntityException("Query parsed but resulted in invalid filter: min_length cannot be negative");
-        }
-        if (filters.containsKey("max_length") && (Integer) filters.get("max_length") < 0) {
-            throw new UnprocessableEntityException("Query parsed but resulted in invalid filter: max_length cannot be negative");
+        static boolean isNumber(String word) {
+            for (int i = 0; i < word.length(); i++) {
+                if (word.charAt(i) < '0' || word.charAt(i) > '9') {
+                    return false;
+                }
+            }
+            return !word.isEmpty();
         }
-        if (filters.containsKey("word_count") && (Integer) filters.get("word_count") < 0) {
-            throw new UnprocessableEntityException("Query parsed but resulted in invalid filter: word_count cannot be negative");
+
+        private static boolean isWordChar(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
         }
-    }
 
-    private static int wordToNumber(String word) {
-        return switch (word.toLowerCase()) {
-            case "one" -> 1;
-            case "two" -> 2;
-            case "three" -> 3;
-            case "four" -> 4;
-            case "five" -> 5;
-            case "six" -> 6;
-            case "seven" -> 7;
-            case "eight" -> 8;
-            case "nine" -> 9;
-            case "ten" -> 10;
-            default -> throw new BadRequestException("Unable to parse word number: " + word);
-        };
+        private static boolean isWhitespace(String query, int from, int to) {
+            for (int i = from; i < to; i++) {
+                char c = query.charAt(i);
+                if (c != ' ' && c != '\t' && c != '\n' && c != '\u000B' && c != '\f' && c != '\r') {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
-}
\ No newline at end of file
+}
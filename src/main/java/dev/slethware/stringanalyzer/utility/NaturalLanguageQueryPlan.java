@@ -0,0 +1,34 @@
+package dev.slethware.stringanalyzer.utility;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable set of filters compiled from a natural language query. Absent filters are null.
+ */
+public record NaturalLanguageQueryPlan(
+        Boolean isPalindrome,
+        Integer minLength,
+        Integer maxLength,
+        Integer wordCount,
+        String containsCharacter,
+        String containsSubstring
+) {
+
+    public boolean isEmpty() {
+        return isPalindrome == null && minLength == null && maxLength == null
+                && wordCount == null && containsCharacter == null && containsSubstring == null;
+    }
+
+    // Same keys as the REST filter parameters, as echoed back in interpreted_query.parsed_filters
+    public Map<String, Object> toMap() {
+        Map<String, Object> filters = new LinkedHashMap<>();
+        if (wordCount != null) filters.put("word_count", wordCount);
+        if (isPalindrome != null) filters.put("is_palindrome", isPalindrome);
+        if (minLength != null) filters.put("min_length", minLength);
+        if (maxLength != null) filters.put("max_length", maxLength);
+        if (containsCharacter != null) filters.put("contains_character", containsCharacter);
+        if (containsSubstring != null) filters.put("contains_substring", containsSubstring);
+        return filters;
+    }
+}
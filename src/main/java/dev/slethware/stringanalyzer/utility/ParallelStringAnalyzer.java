@@ -0,0 +1,182 @@
+package dev.slethware.stringanalyzer.utility;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Segmented version of {@link StringAnalyzerUtil#analyze(String)} for large strings, run on the common
+ * fork/join pool. Each segment produces a partial histogram and its word-run boundaries; partials are
+ * merged left to right, joining a run that spans a segment edge. The histogram and palindrome check
+ * work on UTF-16 chars exactly like the sequential path, so a surrogate pair split across segments is
+ * counted the same way, and the result is identical to the sequential analysis.
+ */
+final class ParallelStringAnalyzer {
+
+    private static final int MIN_SEGMENT_LENGTH = 1 << 16;
+
+    private ParallelStringAnalyzer() {}
+
+    static StringAnalysis analyze(String value) {
+        int length = value.length();
+        int segmentLength = segmentLength(length);
+        int segments = (length + segmentLength - 1) / segmentLength;
+
+        List<Segment> partials = IntStream.range(0, segments)
+                .parallel()
+                .mapToObj(i -> Segment.scan(value, i * segmentLength, Math.min(length, (i + 1) * segmentLength)))
+                .toList();
+
+        Segment merged = partials.get(0);
+        for (int i = 1; i < partials.size(); i++) {
+            merged = merged.merge(partials.get(i));
+        }
+
+        // Chars outside Latin-1 may be surrogates, which fold with their pair
+        boolean palindrome = merged.wideCounts == null
+                ? isMirrored(value, true)
+                : isMirrored(StringAnalyzerUtil.foldCase(value), false);
+        int wordCount = merged.hasSignificant ? merged.lastSignificantRun - merged.firstSignificantRun + 1 : 0;
+
+        return buildHistogram(length, palindrome, wordCount, merged);
+    }
+
+    private static int segmentLength(int length) {
+        int target = ForkJoinPool.getCommonPoolParallelism() * 4;
+        return Math.max(MIN_SEGMENT_LENGTH, (length + target - 1) / target);
+    }
+
+    // Compares mirrored halves segment by segment; any mismatch short-circuits the remaining segments
+    private static boolean isMirrored(String value, boolean ignoreCase) {
+        int length = value.length();
+        int half = length / 2;
+        if (half == 0) {
+            return true;
+        }
+        int segmentLength = segmentLength(half);
+        int segments = (half + segmentLength - 1) / segmentLength;
+        return IntStream.range(0, segments)
+                .parallel()
+                .allMatch(segment -> {
+                    int end = Math.min(half, (segment + 1) * segmentLength);
+                    for (int i = segment * segmentLength; i < end; i++) {
+                        char left = value.charAt(i);
+                        char right = value.charAt(length - 1 - i);
+                        if (ignoreCase ? Character.toLowerCase(left) != Character.toLowerCase(right) : left != right) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+    }
+
+    private static StringAnalysis buildHistogram(int length, boolean palindrome, int wordCount, Segment merged) {
+        int unique = 0;
+        for (int count : merged.latin1Counts) {
+            if (count != 0) {
+                unique++;
+            }
+        }
+        if (merged.wideCounts != null) {
+            for (int c = 256; c < merged.wideCounts.length; c++) {
+                if (merged.wideCounts[c] != 0) {
+                    unique++;
+                }
+            }
+        }
+
+        char[] characters = new char[unique];
+        int[] frequencies = new int[unique];
+        int index = 0;
+        for (int c = 0; c < merged.latin1Counts.length; c++) {
+            if (merged.latin1Counts[c] != 0) {
+                characters[index] = (char) c;
+                frequencies[index++] = merged.latin1Counts[c];
+            }
+        }
+        if (merged.wideCounts != null) {
+            for (int c = 256; c < merged.wideCounts.length; c++) {
+                if (merged.wideCounts[c] != 0) {
+                    characters[index] = (char) c;
+                    frequencies[index++] = merged.wideCounts[c];
+                }
+            }
+        }
+        return new StringAnalysis(length, palindrome, wordCount, characters, frequencies);
+    }
+
+    private static final class Segment {
+
+        private final int[] latin1Counts = new int[256];
+        private int[] wideCounts;
+
+        // Run indices are local to the segment until merged
+        private int runs;
+        private boolean startsInRun;
+        private boolean endsInRun;
+        private boolean hasSignificant;
+        private int firstSignificantRun;
+        private int lastSignificantRun;
+
+        static Segment scan(String value, int from, int to) {
+            Segment segment = new Segment();
+            boolean previousWhitespace = true;
+            for (int i = from; i < to; i++) {
+                char c = value.charAt(i);
+                if (c < 256) {
+                    segment.latin1Counts[c]++;
+                } else {
+                    if (segment.wideCounts == null) {
+                        segment.wideCounts = new int[Character.MAX_VALUE + 1];
+                    }
+                    segment.wideCounts[c]++;
+                }
+
+                boolean whitespace = StringAnalyzerUtil.isSplitWhitespace(c);
+                if (!whitespace && previousWhitespace) {
+                    segment.runs++;
+                }
+                if (c > ' ') {
+                    if (!segment.hasSignificant) {
+                        segment.hasSignificant = true;
+                        segment.firstSignificantRun = segment.runs;
+                    }
+                    segment.lastSignificantRun = segment.runs;
+                }
+                previousWhitespace = whitespace;
+            }
+            segment.startsInRun = from < to && !StringAnalyzerUtil.isSplitWhitespace(value.charAt(from));
+            segment.endsInRun = !previousWhitespace;
+            return segment;
+        }
+
+        // Folds the segment to the right into this one
+        Segment merge(Segment right) {
+            for (int c = 0; c < latin1Counts.length; c++) {
+                latin1Counts[c] += right.latin1Counts[c];
+            }
+            if (right.wideCounts != null) {
+                if (wideCounts == null) {
+                    wideCounts = right.wideCounts;
+                } else {
+                    for (int c = 256; c < wideCounts.length; c++) {
+                        wideCounts[c] += right.wideCounts[c];
+                    }
+                }
+            }
+
+            // A run that crosses the edge was counted once on each side
+            int offset = runs - (endsInRun && right.startsInRun ? 1 : 0);
+            if (right.hasSignificant) {
+                if (!hasSignificant) {
+                    hasSignificant = true;
+                    firstSignificantRun = right.firstSignificantRun + offset;
+                }
+                lastSignificantRun = right.lastSignificantRun + offset;
+            }
+            runs = offset + right.runs;
+            endsInRun = right.endsInRun;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package dev.slethware.stringanalyzer.utility;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import dev.slethware.stringanalyzer.exception.BadRequestException;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisResponse;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sparse fieldset from a {@code fields=} parameter such as {@code id,length,is_palindrome}. Names are the
+ * JSON names of StringAnalysisResponse and its properties; {@code properties} selects all of them.
+ * Applied at serialization through the {@link StringAnalysisResponse#FIELD_FILTER} filter.
+ */
+public final class ResponseFields {
+
+    public static final String ID = "id";
+    public static final String VALUE = "value";
+    public static final String CREATED_AT = "created_at";
+    public static final String PROPERTIES = "properties";
+    public static final String CHARACTER_FREQUENCY_MAP = "character_frequency_map";
+    public static final String STORED_OUT_OF_LINE = "stored_out_of_line";
+
+    private static final List<String> TOP_LEVEL = List.of(ID, VALUE, CREATED_AT);
+    private static final List<String> PROPERTY_NAMES = List.of("length", "is_palindrome", "unique_characters",
+            "word_count", "sha256_hash", CHARACTER_FREQUENCY_MAP);
+
+    public static final ResponseFields ALL = new ResponseFields(null);
+
+    // Null when every field is selected
+    private final Set<String> names;
+
+    private ResponseFields(Set<String> names) {
+        this.names = names;
+    }
+
+    public static ResponseFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = new HashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.equals(PROPERTIES)) {
+                names.addAll(PROPERTY_NAMES);
+            } else if (TOP_LEVEL.contains(name) || PROPERTY_NAMES.contains(name)) {
+                names.add(name);
+            } else {
+                throw new BadRequestException("Unknown field '" + name + "', expected any of "
+                        + TOP_LEVEL + ", " + PROPERTIES + " or " + PROPERTY_NAMES);
+            }
+        }
+        return new ResponseFields(names);
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    public boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    public FilterProvider filterProvider() {
+        if (names == null) {
+            return new SimpleFilterProvider().addFilter(StringAnalysisResponse.FIELD_FILTER,
+                    SimpleBeanPropertyFilter.serializeAll());
+        }
+        Set<String> serialized = new HashSet<>(names);
+        if (PROPERTY_NAMES.stream().anyMatch(names::contains)) {
+            serialized.add(PROPERTIES);
+        }
+        // Explains a value that is left out
+        if (names.contains(VALUE)) {
+            serialized.add(STORED_OUT_OF_LINE);
+        }
+        return new SimpleFilterProvider().addFilter(StringAnalysisResponse.FIELD_FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept(serialized));
+    }
+
+    public ObjectWriter writer(ObjectMapper objectMapper) {
+        return names == null ? objectMapper.writer() : objectMapper.writer(filterProvider());
+    }
+
+    @Override
+    public String toString() {
+        return names == null ? "all" : String.join(",", names);
+    }
+}
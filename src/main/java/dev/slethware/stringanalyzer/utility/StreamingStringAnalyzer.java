@@ -0,0 +1,207 @@
+package dev.slethware.stringanalyzer.utility;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Incremental counterpart of {@link StringAnalyzerUtil#analyze(String)} for values too large to hold as a
+ * String. Chars are fed in chunks of any size; length, histogram, unique characters and word count come
+ * out identical to the in-memory analysis, and the MinHash signature matches {@link MinHashSignature#of}.
+ * The palindrome check needs both ends of the value, so it is a separate pass over the UTF-8 bytes with one
+ * forward and one backward reader of bounded size.
+ */
+public final class StreamingStringAnalyzer {
+
+    private static final int READ_BLOCK_SIZE = 64 * 1024;
+
+    private final int[] counts = new int[Character.MAX_VALUE + 1];
+    private final MinHashSignature.Builder minHash = new MinHashSignature.Builder();
+    private long length;
+
+    private int runs;
+    private int firstSignificantRun;
+    private int lastSignificantRun;
+    private boolean previousWhitespace = true;
+
+    public void update(CharBuffer chars) {
+        length += chars.remaining();
+        while (chars.hasRemaining()) {
+            char c = chars.get();
+            counts[c]++;
+            minHash.update(c);
+
+            // Same run accounting as analyze(), carried across chunk boundaries
+            boolean whitespace = c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+            if (!whitespace && previousWhitespace) {
+                runs++;
+            }
+            if (c > ' ') {
+                if (firstSignificantRun == 0) {
+                    firstSignificantRun = runs;
+                }
+                lastSignificantRun = runs;
+            }
+            previousWhitespace = whitespace;
+        }
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public int[] minHashSignature() {
+        return minHash.finish();
+    }
+
+    public StringAnalysis finish(boolean palindrome) {
+        int unique = 0;
+        for (int count : counts) {
+            if (count != 0) {
+                unique++;
+            }
+        }
+
+        char[] characters = new char[unique];
+        int[] frequencies = new int[unique];
+        int index = 0;
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] != 0) {
+                characters[index] = (char) c;
+                frequencies[index++] = counts[c];
+            }
+        }
+
+        int wordCount = firstSignificantRun == 0 ? 0 : lastSignificantRun - firstSignificantRun + 1;
+        return new StringAnalysis(Math.toIntExact(length), palindrome, wordCount, characters, frequencies);
+    }
+
+    /**
+     * Case-insensitive palindrome check over valid UTF-8 content holding {@code length} UTF-16 chars.
+     * Code points are lower-cased one at a time with {@link Character#toLowerCase(int)}, the same folding
+     * the in-memory analysis uses, so both give the same answer for any value.
+     */
+    public static boolean isPalindrome(FileChannel channel, long length) throws IOException {
+        ForwardReader forward = new ForwardReader(channel);
+        BackwardReader backward = new BackwardReader(channel, channel.size());
+        for (long i = 0; i < length / 2; i++) {
+            if (forward.next() != backward.next()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int decode(byte[] bytes, int start, int count) {
+        int lead = bytes[start] & 0xFF;
+        if (count == 1) {
+            return lead;
+        }
+        int codePoint = lead & (0x7F >> count);
+        for (int i = 1; i < count; i++) {
+            codePoint = (codePoint << 6) | (bytes[start + i] & 0x3F);
+        }
+        return codePoint;
+    }
+
+    private static int sequenceLength(int lead) {
+        if (lead < 0x80) return 1;
+        if (lead < 0xE0) return 2;
+        if (lead < 0xF0) return 3;
+        return 4;
+    }
+
+    // Yields lower-cased UTF-16 chars from the start of the content
+    private static final class ForwardReader {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(READ_BLOCK_SIZE);
+        private long filePosition;
+        private char pendingLow;
+
+        ForwardReader(FileChannel channel) {
+            this.channel = channel;
+            buffer.limit(0);
+        }
+
+        char next() throws IOException {
+            if (pendingLow != 0) {
+                char low = pendingLow;
+                pendingLow = 0;
+                return low;
+            }
+            if (buffer.remaining() < 4) {
+                buffer.compact();
+                int read;
+                while (buffer.position() < 4 && (read = channel.read(buffer, filePosition)) > 0) {
+                    filePosition += read;
+                }
+                buffer.flip();
+            }
+            int start = buffer.position();
+            int count = sequenceLength(buffer.get(start) & 0xFF);
+            int codePoint = Character.toLowerCase(decode(buffer.array(), start, count));
+            buffer.position(start + count);
+            if (Character.isBmpCodePoint(codePoint)) {
+                return (char) codePoint;
+            }
+            pendingLow = Character.lowSurrogate(codePoint);
+            return Character.highSurrogate(codePoint);
+        }
+    }
+
+    // Yields lower-cased UTF-16 chars from the end of the content, low surrogate before high
+    private static final class BackwardReader {
+
+        private final FileChannel channel;
+        private final byte[] block = new byte[READ_BLOCK_SIZE];
+        private long blockStart;
+        private int end;
+        private char pendingHigh;
+
+        BackwardReader(FileChannel channel, long size) {
+            this.channel = channel;
+            this.blockStart = size;
+        }
+
+        char next() throws IOException {
+            if (pendingHigh != 0) {
+                char high = pendingHigh;
+                pendingHigh = 0;
+                return high;
+            }
+            if (end < 4 && blockStart > 0) {
+                refill();
+            }
+            int start = end - 1;
+            while ((block[start] & 0xC0) == 0x80) {
+                start--;
+            }
+            int codePoint = Character.toLowerCase(decode(block, start, end - start));
+            end = start;
+            if (Character.isBmpCodePoint(codePoint)) {
+                return (char) codePoint;
+            }
+            pendingHigh = Character.highSurrogate(codePoint);
+            return Character.lowSurrogate(codePoint);
+        }
+
+        // Moves the window back so it ends at the first unread byte, keeping whole sequences available
+        private void refill() throws IOException {
+            long unreadEnd = blockStart + end;
+            long newStart = Math.max(0, unreadEnd - block.length);
+            ByteBuffer target = ByteBuffer.wrap(block, 0, (int) (unreadEnd - newStart));
+            long position = newStart;
+            while (target.hasRemaining()) {
+                int read = channel.read(target, position);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of content");
+                }
+                position += read;
+            }
+            blockStart = newStart;
+            end = (int) (unreadEnd - newStart);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package dev.slethware.stringanalyzer.utility;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Result of a single analysis pass over a string. The character histogram is kept as
+ * two parallel primitive arrays sorted by char value and only expanded into a map on demand.
+ */
+@Getter
+public final class StringAnalysis {
+
+    private static final String[] LATIN1_STRINGS = new String[256];
+
+    static {
+        for (int c = 0; c < LATIN1_STRINGS.length; c++) {
+            LATIN1_STRINGS[c] = String.valueOf((char) c);
+        }
+    }
+
+    private final int length;
+    private final boolean palindrome;
+    private final int uniqueCharacters;
+    private final int wordCount;
+    private final char[] characters;
+    private final int[] frequencies;
+    private final long characterSignature;
+
+    StringAnalysis(int length, boolean palindrome, int wordCount, char[] characters, int[] frequencies) {
+        this.length = length;
+        this.palindrome = palindrome;
+        this.uniqueCharacters = characters.length;
+        this.wordCount = wordCount;
+        this.characters = characters;
+        this.frequencies = frequencies;
+        this.characterSignature = StringAnalyzerUtil.characterSignature(characters);
+    }
+
+    public Map<String, Integer> toFrequencyMap() {
+        Map<String, Integer> frequencyMap = new HashMap<>((int) (characters.length / 0.75f) + 1);
+        for (int i = 0; i < characters.length; i++) {
+            frequencyMap.put(characterString(characters[i]), frequencies[i]);
+        }
+        return frequencyMap;
+    }
+
+    // Map key for a char; Latin-1 keys are shared instances
+    public static String characterString(char c) {
+        return c < LATIN1_STRINGS.length ? LATIN1_STRINGS[c] : String.valueOf(c);
+    }
+}
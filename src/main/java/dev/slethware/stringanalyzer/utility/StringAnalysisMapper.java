@@ -0,0 +1,54 @@
+package dev.slethware.stringanalyzer.utility;
+
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisResponse;
+import dev.slethware.stringanalyzer.models.entity.Strings;
+import dev.slethware.stringanalyzer.repository.StringSummary;
+
+public class StringAnalysisMapper {
+
+    private StringAnalysisMapper() {}
+
+    public static StringAnalysisResponse toResponse(Strings entity) {
+        StringAnalysisResponse response = new StringAnalysisResponse();
+        response.setId(entity.getId());
+        response.setValue(entity.getValue());
+        if (entity.getValue() == null) {
+            response.setStoredOutOfLine(true);
+        }
+        response.setCreatedAt(entity.getCreatedAt());
+
+        StringAnalysisResponse.StringPropertiesDto properties = new StringAnalysisResponse.StringPropertiesDto();
+        properties.setLength(entity.getLength());
+        properties.setIsPalindrome(entity.getIsPalindrome());
+        properties.setUniqueCharacters(entity.getUniqueCharacters());
+        properties.setWordCount(entity.getWordCount());
+        properties.setSha256Hash(entity.getId());
+        properties.setPackedCharacterFrequency(entity.getCharacterFrequency());
+
+        response.setProperties(properties);
+        return response;
+    }
+
+    // Value and histogram are null unless the client asked for them; a requested value that came back null is streamed
+    public static StringAnalysisResponse toResponse(StringSummary summary, boolean valueRequested, String value,
+                                                    byte[] characterFrequency) {
+        StringAnalysisResponse response = new StringAnalysisResponse();
+        response.setId(summary.getId());
+        response.setValue(value);
+        if (valueRequested && value == null) {
+            response.setStoredOutOfLine(true);
+        }
+        response.setCreatedAt(summary.getCreatedAt());
+
+        StringAnalysisResponse.StringPropertiesDto properties = new StringAnalysisResponse.StringPropertiesDto();
+        properties.setLength(summary.getLength());
+        properties.setIsPalindrome(summary.getIsPalindrome());
+        properties.setUniqueCharacters(summary.getUniqueCharacters());
+        properties.setWordCount(summary.getWordCount());
+        properties.setSha256Hash(summary.getId());
+        properties.setPackedCharacterFrequency(characterFrequency);
+
+        response.setProperties(properties);
+        return response;
+    }
+}
@@ -3,74 +3,247 @@ package dev.slethware.stringanalyzer.utility;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.Map;
-import java.util.Set;
+import java.util.function.Consumer;
 
 public class StringAnalyzerUtil {
 
+    private static final MessageDigest SHA256_PROTOTYPE = createSha256Digest();
+    private static final HexFormat HEX = HexFormat.of();
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 18;
+
     private StringAnalyzerUtil() {}
 
-    public static int calculateLength(String value) {
-        return value.length();
+    public static StringAnalysis analyze(String value) {
+        return analyze(value, DEFAULT_PARALLEL_THRESHOLD);
     }
 
-    public static boolean isPalindrome(String value) {
-        String normalized = value.toLowerCase();
-        int left = 0;
-        int right = normalized.length() - 1;
+    // Strings at least parallelThreshold chars long are analyzed in segments on the common fork/join pool
+    public static StringAnalysis analyze(String value, int parallelThreshold) {
+        int length = value.length();
+        if (length >= parallelThreshold) {
+            return ParallelStringAnalyzer.analyze(value);
+        }
+        int half = length / 2;
+        boolean mirrored = true;
+        boolean mirroredSurrogates = false;
 
-        while (left < right) {
-            if (normalized.charAt(left) != normalized.charAt(right)) {
-                return false;
+        int[] latin1Counts = new int[256];
+        char[] wideChars = null;
+        int wideCount = 0;
+
+        int runs = 0;
+        int firstSignificantRun = 0;
+        int lastSignificantRun = 0;
+        boolean previousWhitespace = true;
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+
+            if (c < 256) {
+                latin1Counts[c]++;
+            } else {
+                if (wideChars == null) {
+                    wideChars = new char[length - i];
+                }
+                wideChars[wideCount++] = c;
             }
-            left++;
-            right--;
+
+            // Mirror comparison of case-folded chars; a surrogate has to be folded with its pair, which is
+            // left to foldCase()
+            if (i < half && mirrored) {
+                char opposite = value.charAt(length - 1 - i);
+                if (Character.isSurrogate(c) || Character.isSurrogate(opposite)) {
+                    mirroredSurrogates = true;
+                } else {
+                    mirrored = Character.toLowerCase(c) == Character.toLowerCase(opposite);
+                }
+            }
+
+            // Word runs mirror trim().split("\\s+"): runs outside the trimmed region do not count
+            boolean whitespace = isSplitWhitespace(c);
+            if (!whitespace && previousWhitespace) {
+                runs++;
+            }
+            if (c > ' ') {
+                if (firstSignificantRun == 0) {
+                    firstSignificantRun = runs;
+                }
+                lastSignificantRun = runs;
+            }
+            previousWhitespace = whitespace;
         }
-        return true;
+
+        boolean palindrome = mirrored && (!mirroredSurrogates || isMirrored(foldCase(value)));
+        int wordCount = firstSignificantRun == 0 ? 0 : lastSignificantRun - firstSignificantRun + 1;
+
+        return buildHistogram(length, palindrome, wordCount, latin1Counts, wideChars, wideCount);
+    }
+
+    public static int calculateLength(String value) {
+        return value.length();
+    }
+
+    public static boolean isPalindrome(String value) {
+        return analyze(value).isPalindrome();
     }
 
     public static int countUniqueCharacters(String value) {
-        Set<Character> uniqueChars = new HashSet<>();
-        for (char c : value.toCharArray()) {
-            uniqueChars.add(c);
-        }
-        return uniqueChars.size();
+        return analyze(value).getUniqueCharacters();
     }
 
     public static int countWords(String value) {
-        if (value == null || value.trim().isEmpty()) {
+        if (value == null) {
             return 0;
         }
-        return value.trim().split("\\s+").length;
+        return analyze(value).getWordCount();
+    }
+
+    // One bit per char modulo 64; a row can only contain a needle if it has all of the needle's bits
+    public static long characterSignature(CharSequence value) {
+        long signature = 0L;
+        for (int i = 0; i < value.length(); i++) {
+            signature |= 1L << (value.charAt(i) & 63);
+        }
+        return signature;
+    }
+
+    static long characterSignature(char[] characters) {
+        long signature = 0L;
+        for (char c : characters) {
+            signature |= 1L << (c & 63);
+        }
+        return signature;
+    }
+
+    // Runs of non-whitespace chars, split on the same whitespace as word counting
+    public static void forEachWord(String value, Consumer<String> action) {
+        int start = -1;
+        for (int i = 0; i <= value.length(); i++) {
+            boolean boundary = i == value.length() || isSplitWhitespace(value.charAt(i));
+            if (!boundary && start < 0) {
+                start = i;
+            } else if (boundary && start >= 0) {
+                action.accept(value.substring(start, i));
+                start = -1;
+            }
+        }
+    }
+
+    // 64-bit FNV-1a with a Murmur3 finalizer, for sketches that need well-mixed bits
+    public static long hash64(CharSequence value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
     }
 
     public static String calculateSha256Hash(String value) {
+        return HEX.formatHex(newSha256Digest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Cloning skips the synchronized provider lookup that getInstance does on every call
+    public static MessageDigest newSha256Digest() {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = digest.digest(value.getBytes(StandardCharsets.UTF_8));
-
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hashBytes) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
+            return (MessageDigest) SHA256_PROTOTYPE.clone();
+        } catch (CloneNotSupportedException e) {
+            return createSha256Digest();
+        }
+    }
+
+    public static String toHex(byte[] bytes) {
+        return HEX.formatHex(bytes);
+    }
+
+    private static MessageDigest createSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("SHA-256 algorithm not found", e);
         }
     }
 
     public static Map<String, Integer> calculateCharacterFrequency(String value) {
-        Map<String, Integer> frequencyMap = new HashMap<>();
-        for (char c : value.toCharArray()) {
-            String character = String.valueOf(c);
-            frequencyMap.put(character, frequencyMap.getOrDefault(character, 0) + 1);
+        return analyze(value).toFrequencyMap();
+    }
+
+    private static StringAnalysis buildHistogram(int length, boolean palindrome, int wordCount,
+                                                 int[] latin1Counts, char[] wideChars, int wideCount) {
+        int unique = 0;
+        for (int count : latin1Counts) {
+            if (count != 0) {
+                unique++;
+            }
+        }
+
+        if (wideCount > 0) {
+            Arrays.sort(wideChars, 0, wideCount);
+            for (int i = 0; i < wideCount; i++) {
+                if (i == 0 || wideChars[i] != wideChars[i - 1]) {
+                    unique++;
+                }
+            }
+        }
+
+        char[] characters = new char[unique];
+        int[] frequencies = new int[unique];
+        int index = 0;
+        for (int c = 0; c < latin1Counts.length; c++) {
+            if (latin1Counts[c] != 0) {
+                characters[index] = (char) c;
+                frequencies[index++] = latin1Counts[c];
+            }
+        }
+        for (int i = 0; i < wideCount; i++) {
+            if (i == 0 || wideChars[i] != wideChars[i - 1]) {
+                characters[index] = wideChars[i];
+                frequencies[index++] = 1;
+            } else {
+                frequencies[index - 1]++;
+            }
+        }
+
+        return new StringAnalysis(length, palindrome, wordCount, characters, frequencies);
+    }
+
+    /**
+     * Lower-cases each code point with {@link Character#toLowerCase(int)}. Palindrome checks compare values
+     * folded this way, in memory and over a streamed spool file alike, so a value gets the same answer
+     * whichever path analyzed it. Unlike String.toLowerCase() the result does not depend on the default
+     * locale or on context (final sigma, dotted capital I), and it keeps the value's UTF-16 length.
+     */
+    static String foldCase(String value) {
+        char[] folded = new char[value.length()];
+        for (int i = 0; i < folded.length; ) {
+            int codePoint = Character.toLowerCase(value.codePointAt(i));
+            i += Character.toChars(codePoint, folded, i);
+        }
+        return new String(folded);
+    }
+
+    private static boolean isMirrored(String normalized) {
+        int left = 0;
+        int right = normalized.length() - 1;
+
+        while (left < right) {
+            if (normalized.charAt(left) != normalized.charAt(right)) {
+                return false;
+            }
+            left++;
+            right--;
         }
-        return frequencyMap;
+        return true;
+    }
+
+    static boolean isSplitWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+-- Schema of the strings and string_contents tables. Written to be idempotent so it also upgrades file
+-- databases whose schema was created earlier by ddl-auto=update.
+
+CREATE TABLE IF NOT EXISTS strings (
+    id                  VARCHAR(64) NOT NULL PRIMARY KEY,
+    string_value        CLOB,
+    length              INTEGER,
+    is_palindrome       BOOLEAN,
+    unique_characters   INTEGER,
+    word_count          INTEGER,
+    character_signature BIGINT,
+    character_frequency VARBINARY(524288),
+    minhash_signature   VARBINARY(256),
+    created_at          TIMESTAMP(6)
+);
+
+-- Columns added after the first file databases were created
+ALTER TABLE strings ADD COLUMN IF NOT EXISTS character_signature BIGINT;
+ALTER TABLE strings ADD COLUMN IF NOT EXISTS character_frequency VARBINARY(524288);
+ALTER TABLE strings ADD COLUMN IF NOT EXISTS minhash_signature VARBINARY(256);
+
+-- Lookups go through the SHA-256 primary key, the value index is no longer used
+DROP INDEX IF EXISTS idx_strings_string_value;
+
+-- string_value was widened from VARCHAR(255) to a CLOB and is null for streamed rows
+ALTER TABLE strings ALTER COLUMN string_value SET DATA TYPE CLOB;
+ALTER TABLE strings ALTER COLUMN string_value SET NULL;
+
+CREATE INDEX IF NOT EXISTS idx_strings_created_at_id ON strings (created_at, id);
+
+CREATE TABLE IF NOT EXISTS string_contents (
+    id      VARCHAR(64) NOT NULL PRIMARY KEY,
+    content CLOB
+);
@@ -0,0 +1,86 @@
+package dev.slethware.stringanalyzer.config;
+
+import dev.slethware.stringanalyzer.StringAnalyzerApiApplication;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisRequest;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisResponse;
+import dev.slethware.stringanalyzer.service.StringAnalysisService;
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersistentProfileTests {
+
+	@TempDir
+	Path dataDirectory;
+
+	@Test
+	void freshDatabaseIsMigratedAndKeptAcrossRestarts() {
+		StringAnalysisRequest request = new StringAnalysisRequest();
+		request.setValue("step on no pets");
+
+		try (ConfigurableApplicationContext context = start()) {
+			context.getBean(StringAnalysisService.class).analyzeAndStore(request);
+		}
+
+		try (ConfigurableApplicationContext context = start()) {
+			StringAnalysisResponse response = context.getBean(StringAnalysisService.class).getByValue("step on no pets");
+			assertThat(response.getProperties().getIsPalindrome()).isTrue();
+			assertThat(response.getProperties().getCharacterFrequencyMap()).containsEntry("p", 2);
+			assertThat(appliedMigrations(context)).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void databaseCreatedByDdlAutoUpdateIsUpgraded() throws Exception {
+		String id = StringAnalyzerUtil.calculateSha256Hash("abba");
+		try (Connection connection = DriverManager.getConnection(
+				"jdbc:h2:file:" + dataDirectory + "/stringanalyzerdb", "sa", "");
+			 Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE strings (id VARCHAR(64) NOT NULL PRIMARY KEY, "
+					+ "string_value VARCHAR(255) NOT NULL, length INTEGER, is_palindrome BOOLEAN, "
+					+ "unique_characters INTEGER, word_count INTEGER, created_at TIMESTAMP(6))");
+			statement.execute("CREATE INDEX idx_strings_string_value ON strings (string_value)");
+			statement.execute("CREATE TABLE character_frequency (string_id VARCHAR(64) NOT NULL, "
+					+ "frequency INTEGER, \"CHARACTER\" VARCHAR(255) NOT NULL, "
+					+ "PRIMARY KEY (string_id, \"CHARACTER\"))");
+			statement.execute("INSERT INTO strings VALUES ('" + id + "', 'abba', 4, TRUE, 2, 1, CURRENT_TIMESTAMP)");
+			statement.execute("INSERT INTO character_frequency VALUES ('" + id + "', 2, 'a'), ('" + id + "', 2, 'b')");
+		}
+
+		try (ConfigurableApplicationContext context = start()) {
+			StringAnalysisResponse response = context.getBean(StringAnalysisService.class).getByValue("abba");
+			assertThat(response.getProperties().getCharacterFrequencyMap()).isEqualTo(Map.of("a", 2, "b", 2));
+
+			JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+			assertThat(jdbcTemplate.queryForObject(
+					"SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS "
+							+ "WHERE TABLE_NAME = 'STRINGS' AND COLUMN_NAME = 'STRING_VALUE'", String.class))
+					.isEqualTo("CHARACTER LARGE OBJECT");
+			assertThat(jdbcTemplate.queryForObject(
+					"SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'CHARACTER_FREQUENCY'",
+					Integer.class)).isZero();
+		}
+	}
+
+	private ConfigurableApplicationContext start() {
+		return new SpringApplicationBuilder(StringAnalyzerApiApplication.class)
+				.profiles("persistent")
+				.run("--app.storage.data-directory=" + dataDirectory, "--server.port=0");
+	}
+
+	private static int appliedMigrations(ConfigurableApplicationContext context) {
+		return context.getBean(JdbcTemplate.class).queryForObject(
+				"SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\" AND \"version\" = '1'", Integer.class);
+	}
+}
@@ -0,0 +1,92 @@
+package dev.slethware.stringanalyzer.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import dev.slethware.stringanalyzer.service.StringAnalysisService;
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsProfileTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AsyncTaskExecutor applicationTaskExecutor;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@MockitoSpyBean
+	private StringAnalysisService service;
+
+	@Test
+	void profileRunsAsyncWorkOnVirtualThreadsWithAWarmPool() throws Exception {
+		Future<Boolean> virtual = applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual());
+		assertThat(virtual.get()).isTrue();
+
+		HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+		assertThat(pool.getMinimumIdle()).isEqualTo(pool.getMaximumPoolSize());
+		assertThat(pool.getConnectionTimeout()).isEqualTo(2000);
+	}
+
+	@Test
+	void exhaustedPoolFailsFastWithServiceUnavailable() throws Exception {
+		doThrow(new CannotCreateTransactionException("Connection is not available, request timed out"))
+				.when(service).getByValue(anyString());
+
+		mockMvc.perform(get("/strings/{value}", "busy"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+				.andExpect(jsonPath("$.isSuccessful").value(false));
+	}
+
+	@Test
+	void hashingFromManyVirtualThreadsMatchesASingleThread() throws Exception {
+		assertThat(StringAnalyzerUtil.calculateSha256Hash("abc"))
+				.isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+		List<String> values = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			values.add("value " + i);
+		}
+		List<String> expected = values.stream().map(StringAnalyzerUtil::calculateSha256Hash).toList();
+
+		List<Future<String>> hashes = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (String value : values) {
+				hashes.add(executor.submit(() -> StringAnalyzerUtil.calculateSha256Hash(value)));
+			}
+		}
+		List<String> actual = new ArrayList<>();
+		for (Future<String> hash : hashes) {
+			actual.add(hash.get());
+		}
+		assertThat(actual).isEqualTo(expected);
+	}
+}
@@ -0,0 +1,101 @@
+package dev.slethware.stringanalyzer.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.async.threshold=64")
+@AutoConfigureMockMvc
+class AsyncAnalysisJobTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	// Over the lowered threshold, so it is analyzed in the background
+	private final String large = "async " + UUID.randomUUID() + " " + "word ".repeat(10);
+	private final String small = "sync " + UUID.randomUUID();
+
+	@AfterEach
+	void deleteValues() throws Exception {
+		mockMvc.perform(delete("/strings/{value}", large));
+		mockMvc.perform(delete("/strings/{value}", small));
+	}
+
+	@Test
+	void largeStringIsAcceptedThenPolledUntilStored() throws Exception {
+		String location = mockMvc.perform(create(large))
+				.andExpect(status().isAccepted())
+				.andExpect(jsonPath("$.status").exists())
+				.andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+		assertThat(location).startsWith("/strings/jobs/");
+
+		JsonNode job = poll(location);
+
+		assertThat(job.get("status").asText()).isEqualTo("completed");
+		assertThat(job.get("completed_at").isNull()).isFalse();
+		assertThat(job.get("result").get("value").asText()).isEqualTo(large);
+		assertThat(job.get("result").get("id").asText()).isEqualTo(job.get("job_id").asText());
+		mockMvc.perform(get("/strings/{value}", large))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.properties.length").value(large.length()));
+	}
+
+	@Test
+	void largeDuplicateIsRejectedAndSmallStringIsStoredInline() throws Exception {
+		poll(mockMvc.perform(create(large)).andExpect(status().isAccepted())
+				.andReturn().getResponse().getHeader(HttpHeaders.LOCATION));
+
+		mockMvc.perform(create(large)).andExpect(status().isConflict());
+		mockMvc.perform(create(small))
+				.andExpect(status().isCreated())
+				.andExpect(header().doesNotExist(HttpHeaders.LOCATION))
+				.andExpect(jsonPath("$.value").value(small));
+	}
+
+	@Test
+	void unknownJobIsNotFound() throws Exception {
+		mockMvc.perform(get("/strings/jobs/{jobId}", "missing")).andExpect(status().isNotFound());
+	}
+
+	private JsonNode poll(String location) throws Exception {
+		JsonNode job = null;
+		for (int i = 0; i < 250; i++) {
+			job = objectMapper.readTree(mockMvc.perform(get(location))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString());
+			String status = job.get("status").asText();
+			if (status.equals("completed") || status.equals("failed")) {
+				return job;
+			}
+			Thread.sleep(20);
+		}
+		throw new AssertionError("Job did not finish: " + job);
+	}
+
+	private static RequestBuilder create(String value) {
+		return post("/strings")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"value\": \"" + value + "\"}");
+	}
+}
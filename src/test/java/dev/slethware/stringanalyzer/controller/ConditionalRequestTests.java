@@ -0,0 +1,102 @@
+package dev.slethware.stringanalyzer.controller;
+
+import dev.slethware.stringanalyzer.service.StringAnalysisService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalRequestTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoSpyBean
+	private StringAnalysisService service;
+
+	private final String value = "etag " + UUID.randomUUID();
+	private final String other = "other " + UUID.randomUUID();
+
+	@AfterEach
+	void deleteValues() throws Exception {
+		mockMvc.perform(delete("/strings/{value}", value));
+		mockMvc.perform(delete("/strings/{value}", other));
+	}
+
+	@Test
+	void matchingTagOnASingleStringIsAnsweredWithoutLoadingIt() throws Exception {
+		create(value);
+		String etag = mockMvc.perform(get("/strings/{value}", value))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		clearInvocations(service);
+
+		mockMvc.perform(get("/strings/{value}", value).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(content().string(""));
+		verify(service, never()).getByValue(anyString());
+	}
+
+	@Test
+	void singleStringTagChangesAfterAWrite() throws Exception {
+		create(value);
+		String etag = mockMvc.perform(get("/strings/{value}", value))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		create(other);
+
+		String refreshed = mockMvc.perform(get("/strings/{value}", value).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(refreshed).isNotEqualTo(etag);
+	}
+
+	@Test
+	void matchingTagOnTheListIsAnsweredWithoutQuerying() throws Exception {
+		create(value);
+		String etag = mockMvc.perform(get("/strings").param("limit", "5"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		clearInvocations(service);
+
+		mockMvc.perform(get("/strings").param("limit", "5").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+		verify(service, never()).getAllWithFilters(any(), any(), any(), any(), any(), any(), any(), any(), any());
+
+		create(other);
+		mockMvc.perform(get("/strings").param("limit", "5").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+	}
+
+	private void create(String value) throws Exception {
+		mockMvc.perform(post("/strings")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"value\": \"" + value + "\"}"))
+				.andExpect(status().isCreated());
+	}
+}
@@ -0,0 +1,114 @@
+package dev.slethware.stringanalyzer.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FieldSelectionTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final String token = "fields" + UUID.randomUUID().toString().replace("-", "");
+	private final String value = "aab " + token;
+	private final String streamed = "streamed " + token;
+
+	@BeforeEach
+	void createValues() throws Exception {
+		mockMvc.perform(post("/strings")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"value\": \"" + value + "\"}"))
+				.andExpect(status().isCreated());
+	}
+
+	@AfterEach
+	void deleteValues() throws Exception {
+		mockMvc.perform(delete("/strings/{value}", value));
+		mockMvc.perform(delete("/strings/{value}", streamed));
+	}
+
+	@Test
+	void onlyTheSelectedFieldsAreWritten() throws Exception {
+		JsonNode page = list("id,length,word_count");
+
+		assertThat(page.get("count").asInt()).isEqualTo(1);
+		assertThat(page.has("filters_applied")).isTrue();
+		JsonNode item = page.get("data").get(0);
+		assertThat(item.fieldNames()).toIterable().containsExactlyInAnyOrder("id", "properties");
+		assertThat(item.get("id").asText()).isEqualTo(StringAnalyzerUtil.calculateSha256Hash(value));
+		assertThat(item.get("properties").fieldNames()).toIterable()
+				.containsExactlyInAnyOrder("length", "word_count");
+		assertThat(item.get("properties").get("length").asInt()).isEqualTo(value.length());
+		assertThat(item.get("properties").get("word_count").asInt()).isEqualTo(2);
+	}
+
+	@Test
+	void propertiesSelectsEveryPropertyAndValueIsFetchedOnlyWhenAsked() throws Exception {
+		JsonNode properties = list("properties").get("data").get(0);
+		assertThat(properties.fieldNames()).toIterable().containsExactly("properties");
+		assertThat(properties.get("properties").fieldNames()).toIterable().containsExactlyInAnyOrder("length",
+				"is_palindrome", "unique_characters", "word_count", "sha256_hash", "character_frequency_map");
+		assertThat(properties.get("properties").get("character_frequency_map").get("a").asLong())
+				.isEqualTo(value.chars().filter(c -> c == 'a').count());
+
+		JsonNode valueOnly = list("value").get("data").get(0);
+		assertThat(valueOnly.fieldNames()).toIterable().containsExactly("value");
+		assertThat(valueOnly.get("value").asText()).isEqualTo(value);
+	}
+
+	@Test
+	void selectedValueOfAStreamedStringIsFlaggedOutOfLine() throws Exception {
+		mockMvc.perform(post("/strings/stream")
+						.contentType(MediaType.TEXT_PLAIN)
+						.content(streamed.getBytes(StandardCharsets.UTF_8)))
+				.andExpect(status().isCreated());
+
+		JsonNode page = list("id,value");
+
+		assertThat(page.get("count").asInt()).isEqualTo(2);
+		for (JsonNode item : page.get("data")) {
+			if (item.has("stored_out_of_line")) {
+				assertThat(item.fieldNames()).toIterable().containsExactlyInAnyOrder("id", "stored_out_of_line");
+				assertThat(item.get("id").asText()).isEqualTo(StringAnalyzerUtil.calculateSha256Hash(streamed));
+			} else {
+				assertThat(item.get("value").asText()).isEqualTo(value);
+			}
+		}
+	}
+
+	@Test
+	void unknownFieldIsRejected() throws Exception {
+		mockMvc.perform(get("/strings").param("fields", "id,nope"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private JsonNode list(String fields) throws Exception {
+		return objectMapper.readTree(mockMvc.perform(get("/strings")
+						.param("contains_substring", token)
+						.param("fields", fields))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+	}
+}
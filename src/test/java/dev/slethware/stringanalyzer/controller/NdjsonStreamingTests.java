@@ -0,0 +1,110 @@
+package dev.slethware.stringanalyzer.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class NdjsonStreamingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final String token = "ndjson" + UUID.randomUUID().toString().replace("-", "");
+	private final List<String> values = List.of(token + " one", token + " two", token + " three");
+
+	@BeforeEach
+	void createValues() throws Exception {
+		for (String value : values) {
+			mockMvc.perform(post("/strings")
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("{\"value\": \"" + value + "\"}"))
+					.andExpect(status().isCreated());
+		}
+	}
+
+	@AfterEach
+	void deleteValues() throws Exception {
+		for (String value : values) {
+			mockMvc.perform(delete("/strings/{value}", value));
+		}
+	}
+
+	@Test
+	void streamWritesOneDocumentPerLineInPageOrder() throws Exception {
+		JsonNode page = objectMapper.readTree(mockMvc.perform(get("/strings")
+						.param("contains_substring", token)
+						.param("limit", "10"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		List<String> pageIds = new ArrayList<>();
+		page.get("data").forEach(item -> pageIds.add(item.get("id").asText()));
+
+		List<JsonNode> lines = stream(get("/strings").param("contains_substring", token));
+
+		assertThat(lines).extracting(line -> line.get("id").asText()).containsExactlyElementsOf(pageIds);
+		assertThat(lines).extracting(line -> line.get("value").asText()).containsExactlyInAnyOrderElementsOf(values);
+		assertThat(lines.get(0).get("properties").get("length").asInt()).isEqualTo(lines.get(0).get("value").asText().length());
+	}
+
+	@Test
+	void streamResumesFromAPageCursor() throws Exception {
+		JsonNode page = objectMapper.readTree(mockMvc.perform(get("/strings")
+						.param("contains_substring", token)
+						.param("limit", "1"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		String first = page.get("data").get(0).get("id").asText();
+
+		List<JsonNode> lines = stream(get("/strings")
+				.param("contains_substring", token)
+				.param("cursor", page.get("next_cursor").asText()));
+
+		assertThat(lines).hasSize(values.size() - 1);
+		assertThat(lines).extracting(line -> line.get("id").asText()).doesNotContain(first);
+	}
+
+	private List<JsonNode> stream(MockHttpServletRequestBuilder builder) throws Exception {
+		MvcResult started = mockMvc.perform(builder.accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+		assertThat(body).endsWith("\n");
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			lines.add(objectMapper.readTree(line));
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,129 @@
+package dev.slethware.stringanalyzer.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StringStatisticsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final String token = UUID.randomUUID().toString().replace("-", "");
+	private final String palindrome = token + new StringBuilder(token).reverse();
+	private final String sentence = "~~~ stats " + token + " words";
+
+	@BeforeEach
+	void awaitLoad() throws Exception {
+		for (int i = 0; i < 250 && !stats().get("complete").asBoolean(); i++) {
+			Thread.sleep(20);
+		}
+		assertThat(stats().get("complete").asBoolean()).isTrue();
+	}
+
+	@AfterEach
+	void deleteValues() throws Exception {
+		mockMvc.perform(delete("/strings/{value}", palindrome));
+		mockMvc.perform(delete("/strings/{value}", sentence));
+	}
+
+	@Test
+	void insertsAndDeletesMoveTheAggregates() throws Exception {
+		JsonNode before = stats();
+
+		create(palindrome);
+		create(sentence);
+		JsonNode added = stats();
+
+		assertThat(added.get("total_strings").asLong()).isEqualTo(before.get("total_strings").asLong() + 2);
+		assertThat(added.get("palindromes").asLong()).isEqualTo(before.get("palindromes").asLong() + 1);
+		assertThat(tilde(added)).isEqualTo(tilde(before) + 3);
+		assertMatchesTable(added);
+
+		mockMvc.perform(delete("/strings/{value}", sentence)).andExpect(status().isNoContent());
+		JsonNode removed = stats();
+
+		assertThat(removed.get("total_strings").asLong()).isEqualTo(before.get("total_strings").asLong() + 1);
+		assertThat(tilde(removed)).isEqualTo(tilde(before));
+		assertMatchesTable(removed);
+	}
+
+	@Test
+	void batchInsertsAreCountedOnce() throws Exception {
+		JsonNode before = stats();
+
+		mockMvc.perform(post("/strings/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"values\": [\"" + palindrome + "\", \"" + sentence + "\", \"" + palindrome + "\"]}"))
+				.andExpect(status().is2xxSuccessful());
+
+		JsonNode after = stats();
+		assertThat(after.get("total_strings").asLong()).isEqualTo(before.get("total_strings").asLong() + 2);
+		assertMatchesTable(after);
+	}
+
+	// The incrementally kept aggregates agree with a full scan of the table
+	private void assertMatchesTable(JsonNode stats) {
+		Map<String, Object> table = jdbcTemplate.queryForMap("SELECT COUNT(*) AS total, "
+				+ "COALESCE(SUM(CASE WHEN is_palindrome THEN 1 ELSE 0 END), 0) AS palindromes, "
+				+ "COALESCE(AVG(CAST(length AS DOUBLE)), 0) AS average_length, "
+				+ "COALESCE(AVG(CAST(word_count AS DOUBLE)), 0) AS average_word_count FROM strings");
+
+		assertThat(stats.get("total_strings").asLong()).isEqualTo(((Number) table.get("TOTAL")).longValue());
+		assertThat(stats.get("palindromes").asLong()).isEqualTo(((Number) table.get("PALINDROMES")).longValue());
+		assertThat(stats.get("average_length").asDouble())
+				.isCloseTo(((Number) table.get("AVERAGE_LENGTH")).doubleValue(), within(1e-9));
+		assertThat(stats.get("average_word_count").asDouble())
+				.isCloseTo(((Number) table.get("AVERAGE_WORD_COUNT")).doubleValue(), within(1e-9));
+
+		long histogramTotal = 0;
+		for (JsonNode bucket : stats.get("length_histogram")) {
+			histogramTotal += bucket.asLong();
+		}
+		assertThat(histogramTotal).isEqualTo(stats.get("total_strings").asLong());
+	}
+
+	private static long tilde(JsonNode stats) {
+		JsonNode frequency = stats.get("character_frequency").get("~");
+		return frequency != null ? frequency.asLong() : 0;
+	}
+
+	private JsonNode stats() throws Exception {
+		return objectMapper.readTree(mockMvc.perform(get("/strings/stats"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private void create(String value) throws Exception {
+		mockMvc.perform(post("/strings")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"value\": \"" + value + "\"}"))
+				.andExpect(status().isCreated());
+	}
+}
@@ -0,0 +1,80 @@
+package dev.slethware.stringanalyzer.controller;
+
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StringStreamIngestionTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private final String token = "tok" + UUID.randomUUID().toString().replace("-", "");
+	private final String value = "alpha " + token + " omega \u2603";
+
+	@AfterEach
+	void deleteValue() throws Exception {
+		mockMvc.perform(delete("/strings/{value}", value));
+	}
+
+	@Test
+	void streamedValueIsStoredOutOfLine() throws Exception {
+		streamValue();
+
+		mockMvc.perform(get("/strings/{value}", value))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(StringAnalyzerUtil.calculateSha256Hash(value)))
+				.andExpect(jsonPath("$.value").doesNotExist())
+				.andExpect(jsonPath("$.stored_out_of_line").value(true));
+	}
+
+	@Test
+	void filtersSearchOutOfLineContent() throws Exception {
+		String id = StringAnalyzerUtil.calculateSha256Hash(value);
+		streamValue();
+
+		mockMvc.perform(get("/strings").param("contains_substring", token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.count").value(1))
+				.andExpect(jsonPath("$.data[0].id").value(id));
+		mockMvc.perform(get("/strings").param("contains_character", "\u2603").param("contains_substring", token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.count").value(1));
+		mockMvc.perform(get("/strings").param("contains_character", "\u2603"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data[*].id", hasItem(id)));
+		mockMvc.perform(get("/strings").param("contains_substring", token + "x"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.count").value(0));
+		mockMvc.perform(get("/strings").param("count_only", "true").param("contains_substring", token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.count").value(1))
+				.andExpect(jsonPath("$.source").value("query"));
+	}
+
+	private void streamValue() throws Exception {
+		mockMvc.perform(post("/strings/stream")
+						.contentType(MediaType.TEXT_PLAIN)
+						.content(value.getBytes(StandardCharsets.UTF_8)))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.stored_out_of_line").value(true))
+				.andExpect(jsonPath("$.properties.length").value(value.length()));
+	}
+}
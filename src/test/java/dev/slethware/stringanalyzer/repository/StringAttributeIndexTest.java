@@ -0,0 +1,167 @@
+package dev.slethware.stringanalyzer.repository;
+
+import dev.slethware.stringanalyzer.models.entity.Strings;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StringAttributeIndexTest {
+
+	private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+	private static final Comparator<Row> KEYSET_ORDER =
+			Comparator.comparing(Row::createdAt).thenComparing(Row::id);
+
+	private final StringsRepository repository = mock(StringsRepository.class);
+	private final StringAttributeIndex index =
+			new StringAttributeIndex(repository, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+	@Test
+	void pagesMatchBruteForceForSparseAndDenseFilters() throws InterruptedException {
+		Random random = new Random(7);
+		List<Row> rows = new ArrayList<>();
+		for (int i = 0; i < 2_000; i++) {
+			// Few distinct timestamps, so many rows tie on createdAt and order by id
+			rows.add(new Row("id" + random.nextInt(1_000_000) + "-" + i, random.nextInt(60), random.nextInt(4) == 0,
+					random.nextInt(100) == 0 ? 9 : random.nextInt(3), random.nextLong(),
+					EPOCH.plusSeconds(random.nextInt(50))));
+		}
+		build(rows.subList(0, 1_000));
+		rows.subList(1_000, rows.size()).forEach(row -> index.add(row.toEntity()));
+		for (int i = 0; i < rows.size(); i += 3) {
+			index.remove(rows.get(i).id());
+		}
+		List<Row> live = new ArrayList<>();
+		for (int i = 0; i < rows.size(); i++) {
+			if (i % 3 != 0) {
+				live.add(rows.get(i));
+			}
+		}
+
+		// Dense (no filter, palindromes), sparse (word count 9, narrow length) and a signature pre-filter
+		assertPagesMatch(live, null, null, null, null, null, 25);
+		assertPagesMatch(live, true, null, null, null, null, 10);
+		assertPagesMatch(live, null, null, null, 9, null, 4);
+		assertPagesMatch(live, false, 20, 22, 1, null, 7);
+		assertPagesMatch(live, null, 10, null, null, 0b1011L, 50);
+		assertPagesMatch(live, null, 70, null, null, null, 5);
+		assertEquals(live.stream().filter(row -> row.length >= 10 && row.length <= 30 && row.wordCount == 2).count(),
+				index.count(null, 10, 30, 2));
+	}
+
+	@Test
+	void rowRemovedWhileTheBuildIsStreamingIsNotIndexed() throws InterruptedException {
+		Row kept = new Row("kept", 5, true, 1, -1L, EPOCH);
+		Row removed = new Row("removed", 5, true, 1, -1L, EPOCH.plusSeconds(1));
+		// The delete commits after the build started streaming but before the deleted row was read
+		Stream<StringAttributes> stream = Stream.of(kept, removed)
+				.peek(row -> {
+					if (row == kept) {
+						index.remove(removed.id());
+					}
+				})
+				.map(Row::toAttributes);
+
+		build(stream);
+
+		assertEquals(List.of("kept"), ids(index.findIds(null, null, null, null, null, null, null, 10)));
+		assertEquals(1, index.count(true, null, null, 1));
+	}
+
+	@Test
+	void rowAddedAgainAfterTheBuildIsIndexed() throws InterruptedException {
+		Row row = new Row("again", 5, false, 1, -1L, EPOCH);
+		build(Stream.of(row).peek(ignored -> index.remove(row.id())).map(Row::toAttributes));
+		assertTrue(index.findIds(null, null, null, null, null, null, null, 10).isEmpty());
+
+		index.add(row.toEntity());
+
+		assertEquals(List.of("again"), ids(index.findIds(null, null, null, null, null, null, null, 10)));
+	}
+
+	private void assertPagesMatch(List<Row> live, Boolean isPalindrome, Integer minLength, Integer maxLength,
+								  Integer wordCount, Long signature, int pageSize) {
+		List<String> expected = live.stream()
+				.filter(row -> isPalindrome == null || row.isPalindrome == isPalindrome)
+				.filter(row -> minLength == null || row.length >= minLength)
+				.filter(row -> maxLength == null || row.length <= maxLength)
+				.filter(row -> wordCount == null || row.wordCount == wordCount)
+				.filter(row -> signature == null || (row.signature & signature) == signature)
+				.sorted(KEYSET_ORDER)
+				.map(Row::id)
+				.toList();
+
+		List<String> walked = new ArrayList<>();
+		LocalDateTime afterCreatedAt = null;
+		String afterId = null;
+		List<IndexedId> page;
+		do {
+			page = index.findIds(isPalindrome, minLength, maxLength, wordCount, signature, afterCreatedAt, afterId,
+					pageSize);
+			assertTrue(page.size() <= pageSize);
+			for (IndexedId id : page) {
+				walked.add(id.id());
+				afterCreatedAt = id.createdAt();
+				afterId = id.id();
+			}
+		} while (page.size() == pageSize);
+
+		assertEquals(expected, walked);
+	}
+
+	private void build(List<Row> rows) throws InterruptedException {
+		build(rows.stream().map(Row::toAttributes));
+	}
+
+	private void build(Stream<StringAttributes> rows) throws InterruptedException {
+		ReflectionTestUtils.setField(index, "enabled", true);
+		when(repository.streamAttributes()).thenReturn(rows);
+		index.buildOnStartup();
+		for (int i = 0; i < 100 && !index.isReady(); i++) {
+			Thread.sleep(20);
+		}
+		assertTrue(index.isReady());
+	}
+
+	private static List<String> ids(List<IndexedId> ids) {
+		return ids.stream().map(IndexedId::id).toList();
+	}
+
+	private record Row(String id, int length, boolean isPalindrome, int wordCount, long signature,
+					   LocalDateTime createdAt) {
+
+		Strings toEntity() {
+			Strings strings = new Strings();
+			strings.setId(id);
+			strings.setLength(length);
+			strings.setIsPalindrome(isPalindrome);
+			strings.setWordCount(wordCount);
+			strings.setCharacterSignature(signature);
+			strings.setCreatedAt(createdAt);
+			return strings;
+		}
+
+		StringAttributes toAttributes() {
+			return new StringAttributes() {
+				public String getId() { return id; }
+				public Integer getLength() { return length; }
+				public Boolean getIsPalindrome() { return isPalindrome; }
+				public Integer getWordCount() { return wordCount; }
+				public Long getCharacterSignature() { return signature; }
+				public LocalDateTime getCreatedAt() { return createdAt; }
+			};
+		}
+	}
+}
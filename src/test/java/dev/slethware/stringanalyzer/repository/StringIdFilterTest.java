@@ -0,0 +1,133 @@
+package dev.slethware.stringanalyzer.repository;
+
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StringIdFilterTest {
+
+	private final StringsRepository repository = mock(StringsRepository.class);
+
+	@Test
+	void everyIdMightBePresentUntilLoaded() {
+		StringIdFilter filter = filter(1_000, 0.01);
+
+		assertTrue(filter.mightContain(id(1)));
+	}
+
+	@Test
+	void deletesNeverCauseFalseNegatives() throws InterruptedException {
+		// Sized for 100 ids but holding 3,000, so most counters are shared between many ids
+		StringIdFilter filter = filter(100, 0.01);
+		List<String> ids = ids(0, 3_000);
+		load(filter, ids.subList(0, 1_500).stream());
+		ids.subList(1_500, ids.size()).forEach(filter::add);
+
+		List<String> kept = new ArrayList<>();
+		for (int i = 0; i < ids.size(); i++) {
+			if (i % 2 == 0) {
+				filter.remove(ids.get(i));
+			} else {
+				kept.add(ids.get(i));
+			}
+		}
+		// Removing an id that was never added, or removing twice, must not take counts from stored ids
+		filter.remove(id(-1));
+		filter.remove(ids.get(0));
+
+		kept.forEach(id -> assertTrue(filter.mightContain(id), id));
+	}
+
+	@Test
+	void removedIdIsAbsentAndAddedAgainIsPresent() throws InterruptedException {
+		StringIdFilter filter = filter(1_000, 0.01);
+		load(filter, Stream.of(id(1), id(2)));
+
+		filter.remove(id(1));
+		assertFalse(filter.mightContain(id(1)));
+		assertTrue(filter.mightContain(id(2)));
+
+		filter.add(id(1));
+		assertTrue(filter.mightContain(id(1)));
+	}
+
+	@Test
+	void saturatedCountersStick() throws InterruptedException {
+		StringIdFilter filter = filter(1_000, 0.01);
+		load(filter, Stream.empty());
+
+		for (int i = 0; i < 300; i++) {
+			filter.add(id(1));
+		}
+		for (int i = 0; i < 300; i++) {
+			filter.remove(id(1));
+		}
+
+		assertTrue(filter.mightContain(id(1)));
+	}
+
+	@Test
+	void removeWhileLoadingKeepsTheId() throws InterruptedException {
+		StringIdFilter filter = filter(1_000, 0.01);
+		String id = id(1);
+
+		// The delete commits while the loader is streaming, after the id was read
+		load(filter, Stream.of(id, id(2)).peek(streamed -> {
+			if (!streamed.equals(id)) {
+				filter.remove(id);
+			}
+		}));
+
+		assertTrue(filter.mightContain(id));
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheConfiguredRate() throws InterruptedException {
+		StringIdFilter filter = filter(10_000, 0.01);
+		load(filter, ids(0, 10_000).stream());
+
+		long falsePositives = ids(10_000, 110_000).stream().filter(filter::mightContain).count();
+
+		assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+		assertEquals(10_000, ids(0, 10_000).stream().filter(filter::mightContain).count());
+	}
+
+	private StringIdFilter filter(int expectedStrings, double falsePositiveRate) {
+		return new StringIdFilter(repository, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+				true, expectedStrings, falsePositiveRate);
+	}
+
+	private void load(StringIdFilter filter, Stream<String> ids) throws InterruptedException {
+		when(repository.streamIds()).thenReturn(ids);
+		filter.loadOnStartup();
+		for (int i = 0; i < 250 && !isReady(filter); i++) {
+			Thread.sleep(20);
+		}
+		assertTrue(isReady(filter));
+	}
+
+	private static boolean isReady(StringIdFilter filter) {
+		return (boolean) ReflectionTestUtils.getField(filter, "ready");
+	}
+
+	private static List<String> ids(int from, int to) {
+		return IntStream.range(from, to).mapToObj(StringIdFilterTest::id).toList();
+	}
+
+	private static String id(int i) {
+		return StringAnalyzerUtil.calculateSha256Hash("id " + i);
+	}
+}
@@ -0,0 +1,159 @@
+package dev.slethware.stringanalyzer.repository;
+
+import dev.slethware.stringanalyzer.models.entity.Strings;
+import dev.slethware.stringanalyzer.utility.MinHashSignature;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StringSimilarityIndexTest {
+
+	private final StringsRepository repository = mock(StringsRepository.class);
+	private final StringSimilarityIndex index =
+			new StringSimilarityIndex(repository, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+	@Test
+	void candidatesRecallNearDuplicatesFoundByBruteForce() throws InterruptedException {
+		build(Stream.empty());
+		Random random = new Random(5);
+		List<String> values = new ArrayList<>();
+		for (int family = 0; family < 40; family++) {
+			String base = randomText(random, 200);
+			// From near copies to unrelated text, so pairs cover the whole similarity range
+			for (int edits = 0; edits <= 90; edits += 10) {
+				values.add(edit(random, base, edits));
+			}
+		}
+		for (int i = 0; i < values.size(); i++) {
+			index.add(entity("id" + i, values.get(i)));
+		}
+
+		int similarPairs = 0;
+		int similarFound = 0;
+		int dissimilarPairs = 0;
+		int dissimilarFound = 0;
+		for (int query = 0; query < values.size(); query++) {
+			Set<String> candidates = index.findCandidates(MinHashSignature.of(values.get(query)));
+			for (int other = 0; other < values.size(); other++) {
+				double exact = jaccard(values.get(query), values.get(other));
+				boolean found = candidates.contains("id" + other);
+				if (exact >= 0.8) {
+					similarPairs++;
+					similarFound += found ? 1 : 0;
+				} else if (exact < 0.3) {
+					dissimilarPairs++;
+					dissimilarFound += found ? 1 : 0;
+				}
+			}
+		}
+
+		assertTrue(similarPairs > values.size());
+		assertTrue(similarFound >= 0.97 * similarPairs, "recall " + similarFound + "/" + similarPairs);
+		assertTrue(dissimilarFound <= 0.05 * dissimilarPairs, "false candidates " + dissimilarFound + "/" + dissimilarPairs);
+	}
+
+	@Test
+	void removedRowIsNoLongerACandidate() throws InterruptedException {
+		build(Stream.empty());
+		Strings kept = entity("kept", "the quick brown fox jumps over the lazy dog");
+		Strings removed = entity("removed", "the quick brown fox jumps over the lazy dog!");
+		index.add(kept);
+		index.add(removed);
+
+		index.remove(removed);
+
+		Set<String> candidates = index.findCandidates(MinHashSignature.of("the quick brown fox jumps over the lazy dog"));
+		assertEquals(Set.of("kept"), candidates);
+	}
+
+	@Test
+	void noCandidatesUntilBuiltAndRowsRemovedDuringTheBuildAreSkipped() throws InterruptedException {
+		ReflectionTestUtils.setField(index, "enabled", true);
+		assertNull(index.findCandidates(MinHashSignature.of("anything")));
+
+		Strings kept = entity("kept", "a value that stays in the corpus");
+		Strings removed = entity("removed", "a value that stays in the corpus.");
+		build(Stream.of(signature(kept), signature(removed)).peek(row -> {
+			if (row.getId().equals("kept")) {
+				index.remove(removed);
+			}
+		}));
+
+		Set<String> candidates = index.findCandidates(MinHashSignature.of("a value that stays in the corpus"));
+		assertTrue(candidates.contains("kept"));
+		assertFalse(candidates.contains("removed"));
+	}
+
+	private void build(Stream<StringSignature> rows) throws InterruptedException {
+		ReflectionTestUtils.setField(index, "enabled", true);
+		when(repository.streamSignatures()).thenReturn(rows);
+		index.buildOnStartup();
+		for (int i = 0; i < 100 && !index.isReady(); i++) {
+			Thread.sleep(20);
+		}
+		assertTrue(index.isReady());
+	}
+
+	private static Strings entity(String id, String value) {
+		Strings strings = new Strings();
+		strings.setId(id);
+		strings.setValue(value);
+		strings.setMinHashSignature(MinHashSignature.encode(MinHashSignature.of(value)));
+		return strings;
+	}
+
+	private static StringSignature signature(Strings strings) {
+		return new StringSignature() {
+			public String getId() { return strings.getId(); }
+			public byte[] getMinHashSignature() { return strings.getMinHashSignature(); }
+		};
+	}
+
+	private static String randomText(Random random, int length) {
+		StringBuilder text = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			text.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+		}
+		return text.toString();
+	}
+
+	private static String edit(Random random, String value, int edits) {
+		char[] chars = value.toCharArray();
+		for (int i = 0; i < edits; i++) {
+			chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+		}
+		return new String(chars);
+	}
+
+	// Exact Jaccard similarity of the trigram sets, as MinHashSignature estimates it
+	private static double jaccard(String left, String right) {
+		Set<String> shared = shingles(left);
+		Set<String> union = new HashSet<>(shared);
+		union.addAll(shingles(right));
+		shared.retainAll(shingles(right));
+		return (double) shared.size() / union.size();
+	}
+
+	private static Set<String> shingles(String value) {
+		Set<String> shingles = new HashSet<>();
+		for (int i = 0; i + 3 <= value.length(); i++) {
+			shingles.add(value.substring(i, i + 3));
+		}
+		return shingles;
+	}
+}
@@ -0,0 +1,126 @@
+package dev.slethware.stringanalyzer.repository;
+
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StringTrigramIndexTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StringTrigramIndex trigramIndex;
+
+	// Eight chars from a hex UUID, so the needle has six trigrams and no accidental repeats elsewhere
+	private final String token = "q" + UUID.randomUUID().toString().replace("-", "").substring(0, 7);
+	// Every trigram of the token, but never the token itself
+	private final String sharesTrigrams = token.substring(0, 5) + " " + token.substring(3);
+	private final String contains = "before " + token + " after";
+	private final String streamedContains = "streamed " + token + " \u2603";
+	private final String streamedWithout = "streamed " + sharesTrigrams + " \u2603";
+
+	@BeforeEach
+	void awaitIndex() throws InterruptedException {
+		for (int i = 0; i < 100 && !trigramIndex.isReady(); i++) {
+			Thread.sleep(100);
+		}
+		assertThat(trigramIndex.isReady()).isTrue();
+	}
+
+	@AfterEach
+	void deleteValues() throws Exception {
+		for (String value : List.of(sharesTrigrams, contains, streamedContains, streamedWithout)) {
+			mockMvc.perform(delete("/strings/{value}", value));
+		}
+	}
+
+	@Test
+	void candidatesSharingEveryTrigramAreVerifiedAgainstTheValue() throws Exception {
+		create(sharesTrigrams);
+		create(contains);
+
+		assertThat(trigramIndex.findIds(token, null, null, Integer.MAX_VALUE))
+				.extracting(IndexedId::id)
+				.contains(id(sharesTrigrams), id(contains));
+
+		mockMvc.perform(get("/strings").param("contains_substring", token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.count").value(1))
+				.andExpect(jsonPath("$.data[0].id").value(id(contains)));
+	}
+
+	@Test
+	void streamedRowsAreCandidatesAndVerifiedAgainstTheirContent() throws Exception {
+		stream(streamedContains);
+		stream(streamedWithout);
+		create(contains);
+
+		assertThat(trigramIndex.findIds(token, null, null, Integer.MAX_VALUE))
+				.extracting(IndexedId::id)
+				.contains(id(streamedContains), id(streamedWithout), id(contains));
+
+		mockMvc.perform(get("/strings").param("contains_substring", token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.count").value(2))
+				.andExpect(jsonPath("$.data[*].id", containsInAnyOrder(id(streamedContains), id(contains))));
+		mockMvc.perform(get("/strings").param("contains_substring", token).param("limit", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.count").value(1))
+				.andExpect(jsonPath("$.data[0].id").value(id(streamedContains)))
+				.andExpect(jsonPath("$.next_cursor").isNotEmpty());
+	}
+
+	@Test
+	void removedRowsAreNoLongerCandidates() throws Exception {
+		create(contains);
+		mockMvc.perform(delete("/strings/{value}", contains)).andExpect(status().isNoContent());
+
+		assertThat(trigramIndex.findIds(token, null, null, Integer.MAX_VALUE))
+				.extracting(IndexedId::id)
+				.doesNotContain(id(contains));
+	}
+
+	@Test
+	void needlesShorterThanATrigramAreNotNarrowed() {
+		assertThat(trigramIndex.findIds(token.substring(0, 2), null, null, 10)).isNull();
+	}
+
+	private void create(String value) throws Exception {
+		mockMvc.perform(post("/strings")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"value\": \"" + value + "\"}"))
+				.andExpect(status().isCreated());
+	}
+
+	private void stream(String value) throws Exception {
+		mockMvc.perform(post("/strings/stream")
+						.contentType(MediaType.TEXT_PLAIN)
+						.content(value.getBytes(StandardCharsets.UTF_8)))
+				.andExpect(status().isCreated());
+	}
+
+	private static String id(String value) {
+		return StringAnalyzerUtil.calculateSha256Hash(value);
+	}
+}
@@ -0,0 +1,111 @@
+package dev.slethware.stringanalyzer.repository;
+
+import dev.slethware.stringanalyzer.models.entity.Strings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StringsRepositoryTests {
+
+	@Autowired
+	private StringsRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final String token = "page" + UUID.randomUUID().toString().replace("-", "");
+	private final LocalDateTime tied = LocalDateTime.of(2030, 1, 1, 12, 0);
+	private final List<String> expectedOrder = new ArrayList<>();
+
+	// One row before the tie, five sharing one created_at, one after; the ids are inserted out of order
+	@BeforeEach
+	void insertRows() {
+		insert("m", tied.minusSeconds(1));
+		for (String suffix : List.of("d", "b", "e", "a", "c")) {
+			insert(suffix, tied);
+		}
+		insert("0", tied.plusSeconds(1));
+		expectedOrder.addAll(List.of(token + "-m", token + "-a", token + "-b", token + "-c", token + "-d",
+				token + "-e", token + "-0"));
+	}
+
+	@AfterEach
+	void deleteRows() {
+		jdbcTemplate.update("DELETE FROM strings WHERE id LIKE ?", token + "-%");
+	}
+
+	@Test
+	void pagesWalkRowsSharingACreatedAtWithoutSkipsOrRepeats() {
+		List<String> walked = new ArrayList<>();
+		LocalDateTime afterCreatedAt = null;
+		String afterId = null;
+		List<Strings> page;
+		do {
+			page = repository.findByFilters(null, null, null, null, null, token, null,
+					afterCreatedAt, afterId, PageRequest.of(0, 2));
+			assertThat(page).hasSizeLessThanOrEqualTo(2);
+			for (Strings strings : page) {
+				walked.add(strings.getId());
+				afterCreatedAt = strings.getCreatedAt();
+				afterId = strings.getId();
+			}
+		} while (!page.isEmpty());
+
+		assertThat(walked).containsExactlyElementsOf(expectedOrder);
+	}
+
+	@Test
+	void summaryPagesWalkRowsSharingACreatedAt() {
+		List<String> walked = new ArrayList<>();
+		LocalDateTime afterCreatedAt = null;
+		String afterId = null;
+		List<StringSummary> page;
+		do {
+			page = repository.findSummariesByFilters(null, null, null, null, null, token, null,
+					afterCreatedAt, afterId, PageRequest.of(0, 3));
+			for (StringSummary summary : page) {
+				walked.add(summary.getId());
+				afterCreatedAt = summary.getCreatedAt();
+				afterId = summary.getId();
+			}
+		} while (!page.isEmpty());
+
+		assertThat(walked).containsExactlyElementsOf(expectedOrder);
+	}
+
+	@Test
+	void streamResumesInsideATie() {
+		List<String> streamed = transactionTemplate.execute(status -> {
+			try (Stream<Strings> rows = repository.streamByFilters(null, null, null, null, null, token, null,
+					tied, token + "-b")) {
+				return rows.map(Strings::getId).toList();
+			}
+		});
+
+		assertThat(streamed).containsExactlyElementsOf(expectedOrder.subList(3, expectedOrder.size()));
+	}
+
+	private void insert(String suffix, LocalDateTime createdAt) {
+		String value = token + " " + suffix;
+		jdbcTemplate.update("INSERT INTO strings (id, string_value, length, is_palindrome, unique_characters, "
+						+ "word_count, created_at) VALUES (?, ?, ?, FALSE, 1, 2, ?)",
+				token + "-" + suffix, value, value.length(), createdAt);
+	}
+}
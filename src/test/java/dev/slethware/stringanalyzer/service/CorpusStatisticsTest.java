@@ -0,0 +1,104 @@
+package dev.slethware.stringanalyzer.service;
+
+import dev.slethware.stringanalyzer.models.dto.ApproximateStatisticsResponse;
+import dev.slethware.stringanalyzer.models.dto.StringStatisticsResponse;
+import dev.slethware.stringanalyzer.models.entity.Strings;
+import dev.slethware.stringanalyzer.repository.StringsRepository;
+import dev.slethware.stringanalyzer.utility.CharacterFrequencyCodec;
+import dev.slethware.stringanalyzer.utility.StringAnalysis;
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CorpusStatisticsTest {
+
+	private final StringsRepository repository = mock(StringsRepository.class);
+	private final CorpusStatistics statistics =
+			new CorpusStatistics(repository, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+	@BeforeEach
+	void load() throws InterruptedException {
+		when(repository.streamStatisticsAttributes()).thenReturn(Stream.empty());
+		statistics.start();
+		statistics.loadOnStartup();
+		for (int i = 0; i < 100 && statistics.count(null) == null; i++) {
+			Thread.sleep(20);
+		}
+	}
+
+	@AfterEach
+	void stop() {
+		statistics.stop();
+	}
+
+	@Test
+	void deleteRestoresTheAggregatesAndWordFrequencies() throws InterruptedException {
+		Strings kept = entity("apple banana apple");
+		Strings removed = entity("banana cherry racecar");
+		statistics.add(kept);
+		StringStatisticsResponse before = statistics.snapshot();
+		statistics.add(removed);
+		awaitWordFrequency("cherry", 1);
+
+		statistics.remove(removed);
+		awaitWordFrequency("cherry", 0);
+
+		StringStatisticsResponse after = statistics.snapshot();
+		assertEquals(before.getTotalStrings(), after.getTotalStrings());
+		assertEquals(before.getPalindromes(), after.getPalindromes());
+		assertEquals(before.getAverageLength(), after.getAverageLength());
+		assertEquals(before.getWordCountHistogram(), after.getWordCountHistogram());
+		assertEquals(before.getCharacterFrequency(), after.getCharacterFrequency());
+		assertEquals(1L, statistics.count(null));
+
+		ApproximateStatisticsResponse approximate = statistics.approximateSnapshot(10, "banana");
+		assertEquals(1L, approximate.getWordFrequency());
+		assertEquals(List.of("apple", "banana"), approximate.getTopWords().stream()
+				.map(ApproximateStatisticsResponse.WordFrequency::getWord).toList());
+		// The HyperLogLog is insert-only, so the deleted string's words stay counted
+		assertEquals(4L, approximate.getDistinctWords());
+	}
+
+	@Test
+	void frequencyErrorBoundFollowsTheSketchedWords() throws InterruptedException {
+		statistics.add(entity("one two three"));
+		awaitWordFrequency("three", 1);
+
+		ApproximateStatisticsResponse approximate = statistics.approximateSnapshot(5, "missing");
+		assertEquals(0L, approximate.getWordFrequency());
+		assertEquals(1L, approximate.getFrequencyErrorBound());
+		assertTrue(approximate.getFrequencyConfidence() > 0.98);
+	}
+
+	// Words are sketched on a background thread
+	private void awaitWordFrequency(String word, long expected) throws InterruptedException {
+		for (int i = 0; i < 100 && statistics.approximateSnapshot(1, word).getWordFrequency() != expected; i++) {
+			Thread.sleep(20);
+		}
+		assertEquals(expected, statistics.approximateSnapshot(1, word).getWordFrequency());
+	}
+
+	private static Strings entity(String value) {
+		StringAnalysis analysis = StringAnalyzerUtil.analyze(value);
+		Strings strings = new Strings();
+		strings.setId(StringAnalyzerUtil.calculateSha256Hash(value));
+		strings.setValue(value);
+		strings.setLength(analysis.getLength());
+		strings.setIsPalindrome(analysis.isPalindrome());
+		strings.setUniqueCharacters(analysis.getUniqueCharacters());
+		strings.setWordCount(analysis.getWordCount());
+		strings.setCharacterFrequency(CharacterFrequencyCodec.encode(analysis));
+		return strings;
+	}
+}
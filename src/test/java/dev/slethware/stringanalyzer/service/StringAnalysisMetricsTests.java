@@ -0,0 +1,73 @@
+package dev.slethware.stringanalyzer.service;
+
+import dev.slethware.stringanalyzer.exception.ResourceNotFoundException;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StringAnalysisMetricsTests {
+
+	@Autowired
+	private StringAnalysisService service;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private final String value = "metrics " + UUID.randomUUID();
+
+	@AfterEach
+	void deleteValue() {
+		try {
+			service.deleteByValue(value);
+		} catch (ResourceNotFoundException ignored) {
+			// Not stored by this test
+		}
+	}
+
+	@Test
+	void analyzeAndLookupRecordEachStage() {
+		long hashed = stageCount("analyze", "hash");
+		long analyzed = stageCount("analyze", "analysis");
+		long persisted = stageCount("analyze", "persist");
+		long loaded = stageCount("lookup", "load");
+		long payloads = registry.get("strings.payload.length").summary().count();
+		double payloadTotal = registry.get("strings.payload.length").summary().totalAmount();
+
+		StringAnalysisRequest request = new StringAnalysisRequest();
+		request.setValue(value);
+		service.analyzeAndStore(request);
+		service.getByValue(value);
+
+		assertThat(stageCount("analyze", "hash")).isEqualTo(hashed + 1);
+		assertThat(stageCount("analyze", "analysis")).isEqualTo(analyzed + 1);
+		assertThat(stageCount("analyze", "persist")).isEqualTo(persisted + 1);
+		assertThat(stageCount("lookup", "load")).isEqualTo(loaded + 1);
+		assertThat(registry.get("strings.payload.length").summary().count()).isEqualTo(payloads + 1);
+		assertThat(registry.get("strings.payload.length").summary().totalAmount())
+				.isEqualTo(payloadTotal + value.length());
+	}
+
+	@Test
+	void everyStageIsRegisteredUpFront() {
+		for (StringAnalysisMetrics.Stage stage : StringAnalysisMetrics.Stage.values()) {
+			assertThat(registry.find("strings.stage").tags("operation", operation(stage)).timers()).isNotEmpty();
+		}
+		assertThat(registry.find("strings.stage").timers()).hasSize(StringAnalysisMetrics.Stage.values().length);
+	}
+
+	private long stageCount(String operation, String stage) {
+		return registry.get("strings.stage").tag("operation", operation).tag("stage", stage).timer().count();
+	}
+
+	private static String operation(StringAnalysisMetrics.Stage stage) {
+		return stage.name().substring(0, stage.name().indexOf('_')).toLowerCase();
+	}
+}
@@ -0,0 +1,77 @@
+package dev.slethware.stringanalyzer.service;
+
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisRequest;
+import dev.slethware.stringanalyzer.models.dto.StringBatchRequest;
+import dev.slethware.stringanalyzer.models.dto.StringBatchResponse;
+import dev.slethware.stringanalyzer.repository.StringsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest
+class StringBatchInsertTests {
+
+	@Autowired
+	private StringAnalysisService service;
+
+	@MockitoSpyBean
+	private StringsRepository repository;
+
+	private final String first = "first " + UUID.randomUUID();
+	private final String second = "second " + UUID.randomUUID();
+	private final String third = "third " + UUID.randomUUID();
+
+	@AfterEach
+	void deleteValues() {
+		for (String value : List.of(first, second, third)) {
+			try {
+				service.deleteByValue(value);
+			} catch (RuntimeException ignored) {
+				// Not stored by this test
+			}
+		}
+	}
+
+	@Test
+	void insertRetriesUntilNoConcurrentWriterWinsARace() {
+		// Another request stores one batch value just before each of the first two insert attempts. The
+		// repository is a JDK proxy, so its spy reaches the real repository through the default answer
+		Answer<?> repositoryAnswer = mockingDetails(repository).getMockCreationSettings().getDefaultAnswer();
+		doAnswer(invocation -> {
+			storeConcurrently(first);
+			return repositoryAnswer.answer(invocation);
+		}).doAnswer(invocation -> {
+			storeConcurrently(second);
+			return repositoryAnswer.answer(invocation);
+		}).doAnswer(repositoryAnswer).when(repository).saveAll(anyIterable());
+
+		StringBatchRequest request = new StringBatchRequest();
+		request.setValues(List.of(first, second, third));
+		StringBatchResponse response = service.analyzeAndStoreBatch(request);
+
+		assertThat(response.getResults()).extracting(StringBatchResponse.ItemResult::getStatus)
+				.containsExactly(StringBatchResponse.ItemStatus.CONFLICT, StringBatchResponse.ItemStatus.CONFLICT,
+						StringBatchResponse.ItemStatus.CREATED);
+		assertThat(response.getCreated()).isEqualTo(1);
+		assertThat(service.getByValue(third).getValue()).isEqualTo(third);
+	}
+
+	// Runs on another thread so the row commits on its own, outside the batch's transaction
+	private void storeConcurrently(String value) {
+		StringAnalysisRequest request = new StringAnalysisRequest();
+		request.setValue(value);
+		CompletableFuture.runAsync(() -> service.analyzeAndStore(request)).join();
+	}
+}
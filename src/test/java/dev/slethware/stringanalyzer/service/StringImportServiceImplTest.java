@@ -0,0 +1,108 @@
+package dev.slethware.stringanalyzer.service;
+
+import dev.slethware.stringanalyzer.models.dto.StringBatchRequest;
+import dev.slethware.stringanalyzer.models.dto.StringBatchResponse;
+import dev.slethware.stringanalyzer.models.dto.StringImportResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StringImportServiceImplTest {
+
+	@TempDir
+	Path directory;
+
+	private final List<String> imported = new ArrayList<>();
+	private final StringAnalysisService analysisService = mock(StringAnalysisService.class);
+	private final StringImportServiceImpl importService = new StringImportServiceImpl(analysisService);
+
+	@BeforeEach
+	void configure() {
+		ReflectionTestUtils.setField(importService, "batchSize", 2);
+		ReflectionTestUtils.setField(importService, "bufferSize", 8);
+		ReflectionTestUtils.setField(importService, "maxLineLength", 32);
+		when(analysisService.analyzeAndStoreBatch(any())).thenAnswer(invocation -> {
+			List<String> values = invocation.<StringBatchRequest>getArgument(0).getValues();
+			imported.addAll(values);
+			List<StringBatchResponse.ItemResult> results = new ArrayList<>();
+			for (int i = 0; i < values.size(); i++) {
+				results.add(new StringBatchResponse.ItemResult(i, StringBatchResponse.ItemStatus.CREATED, null, null));
+			}
+			return new StringBatchResponse(results);
+		});
+	}
+
+	@Test
+	void badLinesAreReportedByNumberAndTheRestImported() throws IOException {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		content.writeBytes("first\r\n\n".getBytes(StandardCharsets.UTF_8));
+		// Over the maximum, and long enough to be read past across several buffer refills
+		content.writeBytes(("x".repeat(100) + "\n").getBytes(StandardCharsets.UTF_8));
+		content.writeBytes(new byte[]{'b', (byte) 0xC3, '\n'});
+		content.writeBytes("second\n".getBytes(StandardCharsets.UTF_8));
+		content.writeBytes("y".repeat(40).getBytes(StandardCharsets.UTF_8));
+		content.writeBytes("\nthird".getBytes(StandardCharsets.UTF_8));
+		Path file = Files.write(directory.resolve("strings.txt"), content.toByteArray());
+
+		StringImportResult result = importService.importFile(file);
+
+		assertEquals(List.of("first", "second", "third"), imported);
+		assertEquals(7, result.getLines());
+		assertEquals(3, result.getCreated());
+		assertEquals(3, result.getInvalid());
+		assertEquals(1, result.getSkipped());
+		assertEquals(Files.size(file), result.getBytesRead());
+		assertEquals(List.of(3L, 4L, 6L), result.getRejectedLines().stream()
+				.map(StringImportResult.RejectedLine::getLine).toList());
+		assertEquals("Line is not valid UTF-8", result.getRejectedLines().get(1).getReason());
+		assertFalse(Files.exists(directory.resolve("strings.txt.checkpoint")));
+	}
+
+	@Test
+	void resumedImportNumbersLinesFromTheStartOfTheFile() throws IOException {
+		String before = "one\ntwo\n";
+		Path file = Files.write(directory.resolve("strings.txt"),
+				(before + "three\n" + "z".repeat(50) + "\nfour\n").getBytes(StandardCharsets.UTF_8));
+		Files.writeString(directory.resolve("strings.txt.checkpoint"), before.length() + " 2");
+
+		StringImportResult result = importService.importFile(file);
+
+		assertEquals(List.of("three", "four"), imported);
+		assertEquals(List.of(4L), result.getRejectedLines().stream()
+				.map(StringImportResult.RejectedLine::getLine).toList());
+	}
+
+	@Test
+	void checkpointHoldingOnlyAnOffsetIsStillRead() throws IOException {
+		Path file = Files.write(directory.resolve("strings.txt"), "one\ntwo\n".getBytes(StandardCharsets.UTF_8));
+		Files.writeString(directory.resolve("strings.txt.checkpoint"), "4");
+
+		importService.importFile(file);
+
+		assertEquals(List.of("two"), imported);
+	}
+
+	@Test
+	void corruptCheckpointIsRejected() throws IOException {
+		Path file = Files.write(directory.resolve("strings.txt"), "one\n".getBytes(StandardCharsets.UTF_8));
+		Files.writeString(directory.resolve("strings.txt.checkpoint"), "garbage");
+
+		assertThrows(IllegalStateException.class, () -> importService.importFile(file));
+	}
+}
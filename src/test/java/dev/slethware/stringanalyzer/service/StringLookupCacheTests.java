@@ -0,0 +1,73 @@
+package dev.slethware.stringanalyzer.service;
+
+import dev.slethware.stringanalyzer.exception.ResourceNotFoundException;
+import dev.slethware.stringanalyzer.models.dto.StringAnalysisRequest;
+import dev.slethware.stringanalyzer.repository.StringsRepository;
+import dev.slethware.stringanalyzer.utility.StringAnalyzerUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class StringLookupCacheTests {
+
+	@Autowired
+	private StringAnalysisService service;
+
+	@MockitoSpyBean
+	private StringsRepository repository;
+
+	private final String value = "cached " + UUID.randomUUID();
+	private final String id = StringAnalyzerUtil.calculateSha256Hash(value);
+
+	@AfterEach
+	void deleteValue() {
+		try {
+			service.deleteByValue(value);
+		} catch (ResourceNotFoundException ignored) {
+			// Deleted by the test
+		}
+	}
+
+	@Test
+	void repeatedLookupsAreServedFromTheCache() {
+		store();
+		clearInvocations(repository);
+
+		assertThat(service.getByValue(value).getValue()).isEqualTo(value);
+		assertThat(service.getByValue(value).getId()).isEqualTo(id);
+		assertThat(service.getByValue(value).getProperties().getLength()).isEqualTo(value.length());
+
+		verify(repository, times(1)).findById(id);
+	}
+
+	@Test
+	void deleteInvalidatesTheCachedResponse() {
+		store();
+		service.getByValue(value);
+
+		service.deleteByValue(value);
+
+		assertThatThrownBy(() -> service.getByValue(value)).isInstanceOf(ResourceNotFoundException.class);
+		store();
+		clearInvocations(repository);
+		assertThat(service.getByValue(value).getId()).isEqualTo(id);
+		verify(repository, times(1)).findById(id);
+	}
+
+	private void store() {
+		StringAnalysisRequest request = new StringAnalysisRequest();
+		request.setValue(value);
+		service.analyzeAndStore(request);
+	}
+}
@@ -0,0 +1,80 @@
+package dev.slethware.stringanalyzer.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CharacterFrequencyCodecTest {
+
+	@Test
+	void roundTripsAnalyzedValues() {
+		Random random = new Random(2);
+		for (int i = 0; i < 2_000; i++) {
+			StringBuilder builder = new StringBuilder();
+			int length = random.nextInt(300);
+			for (int j = 0; j < length; j++) {
+				builder.append((char) (random.nextBoolean() ? random.nextInt(128) : random.nextInt(Character.MAX_VALUE + 1)));
+			}
+			assertRoundTrips(StringAnalyzerUtil.analyze(builder.toString()));
+		}
+	}
+
+	@Test
+	void roundTripsEdgeValues() {
+		assertRoundTrips(StringAnalyzerUtil.analyze(""));
+		assertRoundTrips(StringAnalyzerUtil.analyze("\u0000"));
+		assertRoundTrips(StringAnalyzerUtil.analyze("\uFFFF\u0000\u007F\u0080\u3FFF\u4000"));
+		assertRoundTrips(StringAnalyzerUtil.analyze("\uD83D\uDE00"));
+		// Frequencies needing two-, three- and four-byte varints
+		assertRoundTrips(StringAnalyzerUtil.analyze("a".repeat(128) + "b".repeat(16_384) + "c".repeat(2_097_152)));
+	}
+
+	@Test
+	void mapAndArrayEncodingsMatch() {
+		Map<String, Integer> frequencyMap = new HashMap<>();
+		frequencyMap.put("z", 3);
+		frequencyMap.put("a", 1);
+		frequencyMap.put("\u4E2D", 300);
+		frequencyMap.put("\u0000", Integer.MAX_VALUE);
+
+		byte[] encoded = CharacterFrequencyCodec.encode(frequencyMap);
+
+		assertArrayEquals(CharacterFrequencyCodec.encode(new char[]{'\u0000', 'a', 'z', '\u4E2D'},
+				new int[]{Integer.MAX_VALUE, 1, 3, 300}), encoded);
+		assertEquals(frequencyMap, CharacterFrequencyCodec.decode(encoded));
+	}
+
+	@Test
+	void visitsEntriesInCharOrder() {
+		StringBuilder visited = new StringBuilder();
+		CharacterFrequencyCodec.forEach(CharacterFrequencyCodec.encode(StringAnalyzerUtil.analyze("cabbac\u00E9")),
+				(character, frequency) -> visited.append(character).append(frequency));
+		assertEquals("a2b2c2\u00E91", visited.toString());
+	}
+
+	@Test
+	void rejectsKeysThatAreNotSingleCharacters() {
+		assertThrows(IllegalArgumentException.class, () -> CharacterFrequencyCodec.encode(Map.of("ab", 1)));
+		assertThrows(IllegalArgumentException.class, () -> CharacterFrequencyCodec.encode(Map.of("", 1)));
+	}
+
+	@Test
+	void decodesNullAsNull() {
+		assertNull(CharacterFrequencyCodec.decode(null));
+	}
+
+	private static void assertRoundTrips(StringAnalysis analysis) {
+		byte[] encoded = CharacterFrequencyCodec.encode(analysis);
+		Map<String, Integer> frequencyMap = analysis.toFrequencyMap();
+
+		assertEquals(frequencyMap, CharacterFrequencyCodec.decode(encoded));
+		assertArrayEquals(encoded, CharacterFrequencyCodec.encode(frequencyMap));
+	}
+}
@@ -0,0 +1,92 @@
+package dev.slethware.stringanalyzer.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+	private static final int ITEMS = 20_000;
+
+	@Test
+	void estimatesNeverUndercountAndRarelyExceedTheErrorBound() {
+		CountMinSketch sketch = new CountMinSketch(4, 1 << 10);
+		long[] counts = skewedCounts(new Random(24));
+		long total = 0;
+		for (int i = 0; i < ITEMS; i++) {
+			sketch.add(hash(i), counts[i]);
+			total += counts[i];
+		}
+
+		long bound = (long) Math.ceil(sketch.relativeError() * total);
+		int exceeded = 0;
+		for (int i = 0; i < ITEMS; i++) {
+			long estimate = sketch.estimate(hash(i));
+			assertTrue(estimate >= counts[i], "undercount for item " + i);
+			if (estimate - counts[i] > bound) {
+				exceeded++;
+			}
+		}
+		assertTrue(exceeded <= (1 - sketch.confidence()) * ITEMS, exceeded + " items exceeded the bound");
+	}
+
+	@Test
+	void subtractingWeightsLeavesTheSketchOfTheRemainingItems() {
+		CountMinSketch sketch = new CountMinSketch(4, 1 << 10);
+		CountMinSketch remainingOnly = new CountMinSketch(4, 1 << 10);
+		long[] counts = skewedCounts(new Random(25));
+		for (int i = 0; i < ITEMS; i++) {
+			sketch.add(hash(i), counts[i]);
+			if (i % 2 == 0) {
+				remainingOnly.add(hash(i), counts[i]);
+			}
+		}
+		for (int i = 1; i < ITEMS; i += 2) {
+			sketch.add(hash(i), -counts[i]);
+		}
+
+		for (int i = 0; i < ITEMS; i++) {
+			assertEquals(remainingOnly.estimate(hash(i)), sketch.estimate(hash(i)), "item " + i);
+			if (i % 2 == 0) {
+				assertTrue(sketch.estimate(hash(i)) >= counts[i], "undercount for item " + i);
+			}
+		}
+	}
+
+	@Test
+	void removingEverythingEmptiesTheSketch() {
+		CountMinSketch sketch = new CountMinSketch(3, 1 << 8);
+		for (int i = 0; i < 1_000; i++) {
+			sketch.add(hash(i), i + 1);
+		}
+		for (int i = 0; i < 1_000; i++) {
+			sketch.add(hash(i), -(i + 1));
+		}
+		for (int i = 0; i < 1_000; i++) {
+			assertEquals(0, sketch.estimate(hash(i)));
+		}
+	}
+
+	@Test
+	void invalidDimensionsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 1 << 8));
+		assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 1000));
+	}
+
+	// Mostly ones with a long tail, like word frequencies
+	private static long[] skewedCounts(Random random) {
+		long[] counts = new long[ITEMS];
+		for (int i = 0; i < ITEMS; i++) {
+			counts[i] = 1 + (long) Math.floor(Math.pow(random.nextDouble(), 8) * 5_000);
+		}
+		return counts;
+	}
+
+	private static long hash(int item) {
+		return StringAnalyzerUtil.hash64("word" + item);
+	}
+}
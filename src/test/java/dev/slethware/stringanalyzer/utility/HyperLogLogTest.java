@@ -0,0 +1,64 @@
+package dev.slethware.stringanalyzer.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+	@Test
+	void estimatesStayWithinFourStandardErrors() {
+		for (int precision : new int[]{10, 14}) {
+			for (int cardinality : new int[]{100, 5_000, 200_000, 1_000_000}) {
+				HyperLogLog sketch = new HyperLogLog(precision);
+				for (int i = 0; i < cardinality; i++) {
+					sketch.add(StringAnalyzerUtil.hash64("word" + i));
+				}
+				double error = Math.abs(sketch.estimate() - cardinality) / (double) cardinality;
+				assertTrue(error <= 4 * sketch.relativeStandardError(),
+						"relative error " + error + " for " + cardinality + " at precision " + precision);
+			}
+		}
+	}
+
+	@Test
+	void repeatedItemsDoNotRaiseTheEstimate() {
+		HyperLogLog sketch = new HyperLogLog(14);
+		for (int i = 0; i < 10_000; i++) {
+			sketch.add(StringAnalyzerUtil.hash64("word" + i));
+		}
+		long estimate = sketch.estimate();
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 10_000; i++) {
+				sketch.add(StringAnalyzerUtil.hash64("word" + i));
+			}
+		}
+		assertEquals(estimate, sketch.estimate());
+	}
+
+	@Test
+	void smallCardinalitiesUseLinearCounting() {
+		HyperLogLog sketch = new HyperLogLog(14);
+		assertEquals(0, sketch.estimate());
+		for (int i = 0; i < 20; i++) {
+			sketch.add(StringAnalyzerUtil.hash64("word" + i));
+		}
+		assertEquals(20, sketch.estimate());
+	}
+
+	@Test
+	void allZeroHashIsCountedOnce() {
+		HyperLogLog sketch = new HyperLogLog(4);
+		sketch.add(0L);
+		sketch.add(0L);
+		assertEquals(1, sketch.estimate());
+	}
+
+	@Test
+	void precisionOutsideRangeIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(19));
+	}
+}
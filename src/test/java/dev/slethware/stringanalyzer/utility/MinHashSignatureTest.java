@@ -0,0 +1,91 @@
+package dev.slethware.stringanalyzer.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashSignatureTest {
+
+	@Test
+	void estimatesFollowTheExactTrigramJaccard() {
+		Random random = new Random(11);
+		double totalError = 0;
+		int pairs = 0;
+		for (int edits = 0; edits <= 120; edits += 4) {
+			for (int trial = 0; trial < 10; trial++) {
+				String base = randomText(random, 300);
+				String variant = edit(random, base, edits);
+				double exact = jaccard(base, variant);
+				double estimate = MinHashSignature.similarity(MinHashSignature.of(base), MinHashSignature.of(variant));
+
+				// Four standard errors of a 64-bin estimate, plus a little for densified bins
+				double bound = 4 * Math.sqrt(exact * (1 - exact) / MinHashSignature.SIZE) + 0.05;
+				assertTrue(Math.abs(estimate - exact) <= bound,
+						"estimate " + estimate + " for exact " + exact + " after " + edits + " edits");
+				totalError += estimate - exact;
+				pairs++;
+			}
+		}
+		// Unbiased: the errors cancel out over many pairs
+		assertTrue(Math.abs(totalError / pairs) < 0.02, "mean error " + totalError / pairs);
+	}
+
+	@Test
+	void equalValuesMatchExactlyAndShortValuesStayApart() {
+		assertEquals(1.0, MinHashSignature.similarity(MinHashSignature.of("hello world"),
+				MinHashSignature.of("hello world")));
+		assertTrue(MinHashSignature.similarity(MinHashSignature.of("ab"), MinHashSignature.of("abc")) < 1.0);
+		assertTrue(MinHashSignature.similarity(MinHashSignature.of("a"), MinHashSignature.of("b")) < 1.0);
+	}
+
+	@Test
+	void incrementalBuilderAndEncodingRoundTrip() {
+		String value = randomText(new Random(3), 500);
+		MinHashSignature.Builder builder = new MinHashSignature.Builder();
+		value.chars().forEach(c -> builder.update((char) c));
+		int[] signature = builder.finish();
+
+		assertArrayEquals(MinHashSignature.of(value), signature);
+		assertArrayEquals(signature, MinHashSignature.decode(MinHashSignature.encode(signature)));
+		assertEquals(MinHashSignature.BANDS, MinHashSignature.bandKeys(signature).length);
+	}
+
+	private static String randomText(Random random, int length) {
+		StringBuilder text = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			text.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+		}
+		return text.toString();
+	}
+
+	// Replaces chars at random positions
+	private static String edit(Random random, String value, int edits) {
+		char[] chars = value.toCharArray();
+		for (int i = 0; i < edits; i++) {
+			chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+		}
+		return new String(chars);
+	}
+
+	private static double jaccard(String left, String right) {
+		Set<String> leftShingles = shingles(left);
+		Set<String> union = new HashSet<>(leftShingles);
+		union.addAll(shingles(right));
+		leftShingles.retainAll(shingles(right));
+		return (double) leftShingles.size() / union.size();
+	}
+
+	private static Set<String> shingles(String value) {
+		Set<String> shingles = new HashSet<>();
+		for (int i = 0; i + 3 <= value.length(); i++) {
+			shingles.add(value.substring(i, i + 3));
+		}
+		return shingles;
+	}
+}
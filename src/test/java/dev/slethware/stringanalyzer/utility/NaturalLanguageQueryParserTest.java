@@ -0,0 +1,110 @@
+package dev.slethware.stringanalyzer.utility;
+
+import dev.slethware.stringanalyzer.exception.BadRequestException;
+import dev.slethware.stringanalyzer.exception.UnprocessableEntityException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NaturalLanguageQueryParserTest {
+
+	@Test
+	void parsesWordCounts() {
+		assertParses("all single word palindromic strings", Map.of("word_count", 1, "is_palindrome", true));
+		assertParses("one word", Map.of("word_count", 1));
+		assertParses("strings with two words", Map.of("word_count", 2));
+		assertParses("ten word strings", Map.of("word_count", 10));
+		assertParses("strings with 3 words", Map.of("word_count", 3));
+		assertParses("12 word strings", Map.of("word_count", 12));
+		// Named counts take precedence over numeric ones, single word over both
+		assertParses("two words or 5 words", Map.of("word_count", 2));
+		assertParses("single word strings with three words", Map.of("word_count", 1));
+	}
+
+	@Test
+	void parsesLengths() {
+		assertParses("strings longer than 10 characters", Map.of("min_length", 11));
+		assertParses("shorter than 5", Map.of("max_length", 4));
+		assertParses("at least 5 characters", Map.of("min_length", 5));
+		assertParses("at most 8 chars", Map.of("max_length", 8));
+		assertParses("exactly 7 characters", Map.of("min_length", 7, "max_length", 7));
+		assertParses("min length 3", Map.of("min_length", 3));
+		assertParses("minimum length 3 and maximum length 9", Map.of("min_length", 3, "max_length", 9));
+		assertParses("longer than 2 and shorter than 20", Map.of("min_length", 3, "max_length", 19));
+		// Later rules override earlier ones whatever their order in the query
+		assertParses("at least 10 characters longer than 5", Map.of("min_length", 10));
+		assertParses("min length 4 exactly 6 characters", Map.of("min_length", 4, "max_length", 6));
+	}
+
+	@Test
+	void parsesCharacters() {
+		assertParses("strings containing the letter z", Map.of("contains_character", "z"));
+		assertParses("contains character y", Map.of("contains_character", "y"));
+		assertParses("contain letter b", Map.of("contains_character", "b"));
+		assertParses("words with the letter q", Map.of("contains_character", "q"));
+		assertParses("palindromic strings that contain the first vowel",
+				Map.of("is_palindrome", true, "contains_character", "a"));
+		assertParses("second vowel", Map.of("contains_character", "e"));
+		assertParses("3rd vowel", Map.of("contains_character", "i"));
+		assertParses("fourth vowel", Map.of("contains_character", "o"));
+		assertParses("last vowel", Map.of("contains_character", "u"));
+		assertParses("the vowel e", Map.of("contains_character", "e"));
+		// Vowel phrases take precedence over letter phrases
+		assertParses("containing the letter z and the first vowel", Map.of("contains_character", "a"));
+	}
+
+	@Test
+	void matchesKeywordsCaseInsensitivelyAndOnlyAcrossWhitespace() {
+		assertParses("PALINDROMIC Strings LONGER THAN 3", Map.of("is_palindrome", true, "min_length", 4));
+		assertParses("Containing The Letter X", Map.of("contains_character", "x"));
+		assertParses("palindromes\tlonger\t than 1", Map.of("is_palindrome", true, "min_length", 2));
+		assertParses("palindromes longer-than 5", Map.of("is_palindrome", true));
+		assertParses("palindromes, single_word", Map.of("is_palindrome", true));
+	}
+
+	@Test
+	void parsesQuotedSubstrings() {
+		assertParses("strings containing 'abc'", Map.of("contains_substring", "abc"));
+		assertParses("containing the substring \"Hello World\"", Map.of("contains_substring", "Hello World"));
+		assertParses("contains text 'Z'", Map.of("contains_substring", "Z"));
+		// Quoted text is kept verbatim and never read as a keyword
+		assertParses("containing 'palindrome longer than 3'", Map.of("contains_substring", "palindrome longer than 3"));
+		assertParses("palindromes containing \"it's\"", Map.of("is_palindrome", true, "contains_substring", "it's"));
+	}
+
+	@Test
+	void acceptsCharacterAndSubstringTogether() {
+		assertParses("containing the letter a and containing 'xyz'",
+				Map.of("contains_character", "a", "contains_substring", "xyz"));
+		assertParses("single word strings with the letter q containing 'qu'",
+				Map.of("word_count", 1, "contains_character", "q", "contains_substring", "qu"));
+	}
+
+	@Test
+	void rejectsUnparseableQueries() {
+		assertThrows(BadRequestException.class, () -> NaturalLanguageQueryParser.parseQuery(""));
+		assertThrows(BadRequestException.class, () -> NaturalLanguageQueryParser.parseQuery("   "));
+		assertThrows(BadRequestException.class, () -> NaturalLanguageQueryParser.parseQuery(null));
+		assertThrows(BadRequestException.class, () -> NaturalLanguageQueryParser.parseQuery("hello there"));
+		assertThrows(BadRequestException.class, () -> NaturalLanguageQueryParser.parseQuery("containing the letter ab"));
+		assertThrows(BadRequestException.class, () -> NaturalLanguageQueryParser.parseQuery("containing ''"));
+		assertThrows(BadRequestException.class, () -> NaturalLanguageQueryParser.parseQuery("longer than 99999999999"));
+	}
+
+	@Test
+	void rejectsConflictingFilters() {
+		assertThrows(UnprocessableEntityException.class,
+				() -> NaturalLanguageQueryParser.parseQuery("longer than 10 and shorter than 5"));
+		assertThrows(UnprocessableEntityException.class,
+				() -> NaturalLanguageQueryParser.parseQuery("at least 8 characters at most 3 characters"));
+		assertThrows(UnprocessableEntityException.class,
+				() -> NaturalLanguageQueryParser.parseQuery("shorter than 0"));
+	}
+
+	private static void assertParses(String query, Map<String, Object> expected) {
+		assertEquals(expected, NaturalLanguageQueryParser.parseQuery(query), query);
+	}
+}
@@ -0,0 +1,140 @@
+package dev.slethware.stringanalyzer.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelStringAnalyzerTest {
+
+	// Values this long are split into segments of 1 << 16 chars whatever the pool parallelism
+	private static final int LENGTH = 200_000;
+	private static final int SEGMENT_LENGTH = 1 << 16;
+	private static final int[] EDGES = {SEGMENT_LENGTH, 2 * SEGMENT_LENGTH, 3 * SEGMENT_LENGTH};
+
+	@Test
+	void wordRunsStraddlingSegmentEdges() {
+		for (int offset = -3; offset <= 3; offset++) {
+			char[] chars = filled(' ');
+			for (int edge : EDGES) {
+				// A word ending, starting or running across each edge
+				for (int i = edge + offset - 2; i < edge + offset + 2; i++) {
+					chars[i] = 'w';
+				}
+			}
+			assertIdentical(new String(chars));
+		}
+	}
+
+	@Test
+	void segmentsWithoutSignificantChars() {
+		char[] chars = filled(' ');
+		chars[10] = 'a';
+		// Whole segments of whitespace and of control chars, which trim() drops but do not split words
+		for (int i = SEGMENT_LENGTH - 1; i < 2 * SEGMENT_LENGTH + 1; i++) {
+			chars[i] = '\u0001';
+		}
+		chars[LENGTH - 10] = 'z';
+		assertIdentical(new String(chars));
+		assertIdentical(new String(chars).replace('a', ' ').replace('z', ' '));
+		assertIdentical(" \u0001" + new String(filled(' ')) + "\u0001 ");
+	}
+
+	@Test
+	void surrogatePairsStraddlingSegmentEdges() {
+		for (int offset = -1; offset <= 1; offset++) {
+			char[] chars = filled('x');
+			for (int edge : EDGES) {
+				chars[edge + offset - 1] = '\uD83D';
+				chars[edge + offset] = '\uDE00';
+			}
+			assertIdentical(new String(chars));
+		}
+		// Lone halves on either side of an edge
+		char[] chars = filled('x');
+		chars[SEGMENT_LENGTH - 1] = '\uD801';
+		chars[2 * SEGMENT_LENGTH] = '\uDC00';
+		assertIdentical(new String(chars));
+	}
+
+	@Test
+	void nonLatin1Palindromes() {
+		Random random = new Random(19);
+		for (String pool : new String[]{"a\u00E9\u00DF\u00FF ", "\u03B1\u03B2\u4E2D\u1234 "}) {
+			String half = randomString(pool, LENGTH / 2, random);
+			for (String middle : new String[]{"", "x", "\u4E2D"}) {
+				String value = half + middle + mirrored(half, random);
+				assertTrue(assertIdentical(value).isPalindrome(), "mirrored value over " + pool);
+				assertIdentical(value.substring(1));
+			}
+		}
+		// Context-dependent lower-casing (final sigma, dotted capital I) and reversed surrogate pairs
+		for (String pool : new String[]{"\u03A3\u03C3\u03C2 ", "\u0130i\u0131I", "\uD801\uDC00\uD801\uDC28b"}) {
+			String half = randomString(pool, LENGTH / 2, random);
+			assertIdentical(half + mirrored(half, random));
+		}
+	}
+
+	@Test
+	void randomValues() {
+		String pool = " \t\n\u000B\f\r\u0001\u00A0aAbBzZ09.,\u00E9\u00C9\u00DF\u00FF\u0100\u0101\u03B1\u0391\u03A3\u03C3\u03C2\u4E2D\u0130";
+		Random random = new Random(7);
+		for (int i = 0; i < 16; i++) {
+			int length = SEGMENT_LENGTH + random.nextInt(3 * SEGMENT_LENGTH);
+			StringBuilder builder = new StringBuilder(length);
+			while (builder.length() < length) {
+				int kind = random.nextInt(16);
+				if (kind == 0) {
+					builder.appendCodePoint(0x1F600 + random.nextInt(5));
+				} else if (kind == 1) {
+					builder.append(" ".repeat(random.nextInt(64)));
+				} else {
+					builder.append(pool.charAt(random.nextInt(pool.length())));
+				}
+			}
+			assertIdentical(builder.toString());
+		}
+	}
+
+	private static StringAnalysis assertIdentical(String value) {
+		StringAnalysis sequential = StringAnalyzerUtil.analyze(value, Integer.MAX_VALUE);
+		StringAnalysis parallel = StringAnalyzerUtil.analyze(value, 1);
+
+		assertEquals(sequential.getLength(), parallel.getLength());
+		assertEquals(sequential.isPalindrome(), parallel.isPalindrome(), "palindrome");
+		assertEquals(sequential.getWordCount(), parallel.getWordCount(), "word count");
+		assertEquals(sequential.getUniqueCharacters(), parallel.getUniqueCharacters(), "unique characters");
+		assertArrayEquals(sequential.getCharacters(), parallel.getCharacters(), "characters");
+		assertArrayEquals(sequential.getFrequencies(), parallel.getFrequencies(), "frequencies");
+		assertEquals(sequential.getCharacterSignature(), parallel.getCharacterSignature(), "character signature");
+		return sequential;
+	}
+
+	private static String randomString(String pool, int length, Random random) {
+		StringBuilder builder = new StringBuilder(length);
+		while (builder.length() < length) {
+			builder.append(pool.charAt(random.nextInt(pool.length())));
+		}
+		return builder.toString();
+	}
+
+	private static char[] filled(char c) {
+		char[] chars = new char[LENGTH];
+		Arrays.fill(chars, c);
+		return chars;
+	}
+
+	// Reversed char by char with random upper-casing, so the result mirrors the value once lower-cased
+	private static String mirrored(String value, Random random) {
+		StringBuilder builder = new StringBuilder(value.length());
+		for (int i = value.length() - 1; i >= 0; i--) {
+			char c = value.charAt(i);
+			builder.append(random.nextBoolean() ? Character.toUpperCase(c) : c);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,143 @@
+package dev.slethware.stringanalyzer.utility;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingStringAnalyzerTest {
+
+	private static final int READ_BLOCK_SIZE = 64 * 1024;
+
+	// One-, two-, three- and four-byte UTF-8 sequences, whitespace and chars with case mappings, including
+	// the ones String.toLowerCase() maps by context or locale (sigma, dotted and dotless I)
+	private static final String POOL = " \t\n\u000B\f\r\u00A0aAbBzZ09.,\u00E9\u00C9\u00DF\u00FF\u0100\u0101\u03B1\u0391\u4E2D\uFEFF"
+			+ "\u03A3\u03C3\u03C2Ii\u0130\u0131";
+
+	@Test
+	void randomChunkSplitsMatchInMemoryAnalysis() {
+		Random random = new Random(16);
+		for (int i = 0; i < 2_000; i++) {
+			String value = randomValue(random, i % 100 == 0 ? 200_000 : random.nextInt(64));
+			StringAnalysis expected = StringAnalyzerUtil.analyze(value);
+
+			StreamingStringAnalyzer analyzer = new StreamingStringAnalyzer();
+			int position = 0;
+			while (position < value.length()) {
+				int count = Math.min(value.length() - position, 1 + random.nextInt(50));
+				analyzer.update(CharBuffer.wrap(value, position, position + count));
+				position += count;
+			}
+			StringAnalysis streamed = analyzer.finish(expected.isPalindrome());
+
+			assertEquals(value.length(), analyzer.getLength());
+			assertEquals(expected.getLength(), streamed.getLength());
+			assertEquals(expected.getWordCount(), streamed.getWordCount(), "word count");
+			assertEquals(expected.getUniqueCharacters(), streamed.getUniqueCharacters(), "unique characters");
+			assertArrayEquals(expected.getCharacters(), streamed.getCharacters(), "characters");
+			assertArrayEquals(expected.getFrequencies(), streamed.getFrequencies(), "frequencies");
+			assertEquals(expected.getCharacterSignature(), streamed.getCharacterSignature(), "character signature");
+			assertArrayEquals(MinHashSignature.of(value), analyzer.minHashSignature(), "minhash signature");
+		}
+	}
+
+	@Test
+	void palindromeWithMultiByteSequencesAtBlockEdge(@TempDir Path directory) throws IOException {
+		// Each shift moves a run of two- or three-byte sequences across the 64 KB edge of both readers
+		for (String wide : new String[]{"\u00E9", "\u00C9", "\u4E2D", "\u0391"}) {
+			for (int shift = 0; shift < 3; shift++) {
+				String half = "a".repeat(READ_BLOCK_SIZE - 4 + shift) + wide.repeat(8) + "b".repeat(100);
+				for (String middle : new String[]{"", "x", "\u4E2D"}) {
+					String value = half + middle + new StringBuilder(half.toUpperCase()).reverse();
+					assertTrue(isPalindrome(directory, value), "palindrome over " + wide + " shifted by " + shift);
+
+					String broken = value.substring(0, value.length() - 1) + "q";
+					assertFalse(isPalindrome(directory, broken), "broken palindrome over " + wide);
+				}
+			}
+		}
+	}
+
+	@Test
+	void surrogatePairsAtBlockEdge(@TempDir Path directory) throws IOException {
+		// Four-byte sequences straddle the edge at every shift; pairs reverse into mismatched halves
+		for (int shift = 0; shift < 4; shift++) {
+			String half = "a".repeat(READ_BLOCK_SIZE - 8 + shift) + "\uD83D\uDE00".repeat(8) + "\uD801\uDC00";
+			String value = half + new StringBuilder(half).reverse();
+			assertEquals(StringAnalyzerUtil.analyze(value).isPalindrome(), isPalindrome(directory, value));
+
+			String symmetric = "\uD83D\uDE00" + "a".repeat(READ_BLOCK_SIZE + shift) + "\uD83D\uDE00";
+			assertEquals(StringAnalyzerUtil.analyze(symmetric).isPalindrome(), isPalindrome(directory, symmetric));
+		}
+	}
+
+	@Test
+	void randomValuesOverSpoolFile(@TempDir Path directory) throws IOException {
+		Random random = new Random(64);
+		for (int i = 0; i < 40; i++) {
+			String half = randomValue(random, READ_BLOCK_SIZE / 2 + random.nextInt(READ_BLOCK_SIZE));
+			StringBuilder mirrored = new StringBuilder(half.length());
+			for (int j = half.length() - 1; j >= 0; j--) {
+				char c = half.charAt(j);
+				mirrored.append(random.nextBoolean() ? Character.toUpperCase(c) : c);
+			}
+			String value = new String((half + mirrored).getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+			assertEquals(StringAnalyzerUtil.analyze(value).isPalindrome(), isPalindrome(directory, value));
+		}
+	}
+
+	@Test
+	void caseFoldingMatchesInMemoryAnalysis(@TempDir Path directory) throws IOException {
+		Locale defaultLocale = Locale.getDefault();
+		try {
+			for (Locale locale : List.of(Locale.ROOT, Locale.forLanguageTag("tr"), Locale.forLanguageTag("lt"))) {
+				Locale.setDefault(locale);
+				for (String value : List.of("\u03C3a\u03A3", "\u03A3 \u03C2", "\u03C2\u03C3", "\u0130xi", "I\u0131",
+						"Ii", "\u0130\u0307i", "\u00C9t\u00E9", "\u0391\u03B1", "\uD801\uDC00\uD801\uDC28",
+						"\u4E2Da\u4E2D", "\u03A3\u0130" + "a".repeat(READ_BLOCK_SIZE) + "i\u03C3")) {
+					assertEquals(StringAnalyzerUtil.analyze(value).isPalindrome(), isPalindrome(directory, value),
+							"palindrome of " + value.chars().limit(8).mapToObj(Integer::toHexString).toList()
+									+ " under " + locale);
+				}
+			}
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	private static boolean isPalindrome(Path directory, String value) throws IOException {
+		Path spool = Files.write(directory.resolve("spool"), value.getBytes(StandardCharsets.UTF_8));
+		try (FileChannel channel = FileChannel.open(spool)) {
+			return StreamingStringAnalyzer.isPalindrome(channel, value.length());
+		}
+	}
+
+	private static String randomValue(Random random, int length) {
+		StringBuilder builder = new StringBuilder(length);
+		while (builder.length() < length) {
+			int kind = random.nextInt(10);
+			if (kind == 0) {
+				builder.appendCodePoint(0x1F600 + random.nextInt(5));
+			} else if (kind == 1) {
+				// Deseret letters have case mappings outside the BMP
+				builder.appendCodePoint(0x10400 + random.nextInt(3));
+			} else {
+				builder.append(POOL.charAt(random.nextInt(POOL.length())));
+			}
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,160 @@
+package dev.slethware.stringanalyzer.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StringAnalyzerUtilTest {
+
+	// Chars the analysis treats specially: split whitespace, other chars trim() removes, Latin-1 and wider
+	// chars with case mappings, and both halves of a surrogate pair
+	private static final char[] ALPHABET = {
+			'a', 'A', 'b', 'z', '0', '.', ' ', '\t', '\n', '\u000B', '\f', '\r', '\u0000', '\u0001', '\u001C',
+			'\u007F', '\u00A0', '\u00B5', '\u00C9', '\u00DF', '\u00E9', '\u00FF', '\u0130', 'i', 'I', '\u039C',
+			'\u03A3', '\u03C3', '\u03C2', '\u1234', '\u4E2D', '\uD83D', '\uDE00', '\uD801', '\uDC00'
+	};
+
+	@Test
+	void latin1ValuesMatchBaseline() {
+		for (String value : List.of("", "a", "racecar", "RaceCar", "A man a plan", "abcabc", "\u00C9t\u00E9",
+				"\u00E9T\u00C9", "\u00DF\u00DF", "\u00FF\u00FF", "stra\u00DFe", "\u00B5\u00B5", "12321", "a.b.a")) {
+			assertMatchesBaseline(value);
+		}
+	}
+
+	@Test
+	void wideCharactersMatchBaseline() {
+		for (String value : List.of("\u4E2D\u6587", "\u4E2D\u4E2D", "\u03A3\u03C3", "\u03C3a\u03A3", "\u03A3\u03C2",
+				"\u0130i", "i\u0130", "I\u0131", "\u1234 \u1234", "\u039C\u00B5")) {
+			assertMatchesBaseline(value);
+		}
+	}
+
+	@Test
+	void surrogatePairsMatchBaseline() {
+		for (String value : List.of("\uD83D\uDE00", "\uD83D\uDE00\uD83D\uDE00", "\uD83D\uDE00a\uD83D\uDE00",
+				"\uD801\uDC00\uD801\uDC28", "\uD801\uDC28\uD801\uDC00", "\uD83D", "\uDE00\uD83D", "a \uD83D\uDE00 b")) {
+			assertMatchesBaseline(value);
+		}
+	}
+
+	@Test
+	void controlCharactersMatchBaseline() {
+		for (String value : List.of("\u0000", "a\u0000b", "\u0001a\u0001", "a\u001Cb", "\u007F", "a\u0000 b",
+				"\u0001 \u0001", "a\u00A0b", "\u00A0")) {
+			assertMatchesBaseline(value);
+		}
+	}
+
+	@Test
+	void leadingAndTrailingWhitespaceMatchBaseline() {
+		for (String value : List.of(" ", "   ", " a", "a ", " a b ", "\t\na\r\n", "\u000Ba\f", "\u0001 a \u0001",
+				" \u0001a", "a\u0001 ", "\u001C a \u001C", "a\u001C", "  two  words  ", "\u0000\u0000", " \u0000 ")) {
+			assertMatchesBaseline(value);
+		}
+	}
+
+	@Test
+	void randomValuesMatchBaseline() {
+		Random random = new Random(1);
+		for (int i = 0; i < 20_000; i++) {
+			StringBuilder builder = new StringBuilder();
+			int length = random.nextInt(12);
+			for (int j = 0; j < length; j++) {
+				builder.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+			}
+			// Mirrored values with mixed case exercise the palindrome paths
+			if (random.nextBoolean()) {
+				String half = builder.toString();
+				builder.append(new StringBuilder(half.toUpperCase()).reverse());
+			}
+			assertMatchesBaseline(builder.toString());
+		}
+	}
+
+	private static void assertMatchesBaseline(String value) {
+		StringAnalysis analysis = StringAnalyzerUtil.analyze(value);
+		String description = "analysis of " + value.chars().mapToObj(Integer::toHexString).toList();
+
+		assertEquals(value.length(), analysis.getLength(), description);
+		assertEquals(isPalindrome(value), analysis.isPalindrome(), description);
+		assertEquals(countUniqueCharacters(value), analysis.getUniqueCharacters(), description);
+		assertEquals(countWords(value), analysis.getWordCount(), description);
+		assertEquals(calculateCharacterFrequency(value), analysis.toFrequencyMap(), description);
+
+		assertEquals(isPalindrome(value), StringAnalyzerUtil.isPalindrome(value), description);
+		assertEquals(countUniqueCharacters(value), StringAnalyzerUtil.countUniqueCharacters(value), description);
+		assertEquals(countWords(value), StringAnalyzerUtil.countWords(value), description);
+	}
+
+	@Test
+	void palindromeFoldsCaseIndependentlyOfLocaleAndContext() {
+		Locale defaultLocale = Locale.getDefault();
+		try {
+			for (Locale locale : List.of(Locale.ROOT, Locale.forLanguageTag("tr"), Locale.forLanguageTag("lt"))) {
+				Locale.setDefault(locale);
+				// A final capital sigma folds to the medial form, and dotted capital I to a plain i
+				assertTrue(StringAnalyzerUtil.isPalindrome("\u03C3a\u03A3"), "final sigma under " + locale);
+				assertTrue(StringAnalyzerUtil.isPalindrome("\u0130xi"), "dotted capital I under " + locale);
+				assertTrue(StringAnalyzerUtil.isPalindrome("Iai"), "capital I under " + locale);
+				assertFalse(StringAnalyzerUtil.isPalindrome("\u0131ai"), "dotless i under " + locale);
+			}
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	// Helpers as they were before the single-pass analysis replaced them, except that the palindrome check
+	// folds code points with Character.toLowerCase(int) rather than the locale-dependent String.toLowerCase()
+
+	private static boolean isPalindrome(String value) {
+		StringBuilder folded = new StringBuilder(value.length());
+		value.codePoints().map(Character::toLowerCase).forEach(folded::appendCodePoint);
+		String normalized = folded.toString();
+		int left = 0;
+		int right = normalized.length() - 1;
+
+		while (left < right) {
+			if (normalized.charAt(left) != normalized.charAt(right)) {
+				return false;
+			}
+			left++;
+			right--;
+		}
+		return true;
+	}
+
+	private static int countUniqueCharacters(String value) {
+		Set<Character> uniqueChars = new HashSet<>();
+		for (char c : value.toCharArray()) {
+			uniqueChars.add(c);
+		}
+		return uniqueChars.size();
+	}
+
+	private static int countWords(String value) {
+		if (value == null || value.trim().isEmpty()) {
+			return 0;
+		}
+		return value.trim().split("\\s+").length;
+	}
+
+	private static Map<String, Integer> calculateCharacterFrequency(String value) {
+		Map<String, Integer> frequencyMap = new HashMap<>();
+		for (char c : value.toCharArray()) {
+			String character = String.valueOf(c);
+			frequencyMap.put(character, frequencyMap.getOrDefault(character, 0) + 1);
+		}
+		return frequencyMap;
+	}
+}